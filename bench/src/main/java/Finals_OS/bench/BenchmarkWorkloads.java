@@ -0,0 +1,35 @@
+package Finals_OS.bench;
+
+import Finals_OS.Workload;
+import Finals_OS.WorkloadGenerator;
+
+/**
+ * Builds reproducible random workloads for the benchmarks.
+ */
+final class BenchmarkWorkloads {
+    static final int MEAN_BURST = 10; // Mean burst time of every distribution
+    private static final int PRIORITY_LEVELS = 10; // Priorities are drawn from 0..9
+
+    private BenchmarkWorkloads() {
+    }
+
+    /**
+     * Creates a workload with Poisson arrivals.
+     *
+     * @param processes Number of processes
+     * @param burst     Burst time distribution
+     * @param load      Offered load: mean burst time divided by mean inter-arrival
+     *                  time. Below 1 the CPU is often idle, above 1 the ready
+     *                  queue keeps growing.
+     * @param seed      Random seed
+     * @return New workload
+     */
+    static Workload create(int processes, WorkloadGenerator.BurstDistribution burst, double load, long seed) {
+        return new WorkloadGenerator(seed)
+                .arrivals(WorkloadGenerator.ArrivalPattern.POISSON, MEAN_BURST / load)
+                .bursts(burst, MEAN_BURST)
+                .maxBurst(100_000)
+                .priorities(WorkloadGenerator.PriorityDistribution.UNIFORM, PRIORITY_LEVELS)
+                .generate(processes);
+    }
+}
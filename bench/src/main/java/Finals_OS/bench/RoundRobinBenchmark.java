@@ -0,0 +1,50 @@
+package Finals_OS.bench;
+
+import Finals_OS.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures Round Robin schedule() throughput across time quanta. Small quanta
+ * mean many more dispatches for the same workload.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class RoundRobinBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int processes;
+
+    @Param({ "UNIFORM", "EXPONENTIAL", "PARETO" })
+    public WorkloadGenerator.BurstDistribution burst;
+
+    @Param({ "0.5", "0.95", "2.0" })
+    public double load;
+
+    @Param({ "1", "4", "16" })
+    public int timeQuantum;
+
+    @Param({ "true", "false" })
+    public boolean recordGantt;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = BenchmarkWorkloads.create(processes, burst, load, 42);
+    }
+
+    @Benchmark
+    public SchedulingAlgorithm schedule() {
+        SchedulingAlgorithm scheduler = Algorithm.ROUND_ROBIN.create(workload.copy(), timeQuantum);
+        if (!recordGantt) {
+            scheduler.setGanttSink(GanttSink.NONE);
+        }
+        scheduler.schedule();
+        return scheduler;
+    }
+}
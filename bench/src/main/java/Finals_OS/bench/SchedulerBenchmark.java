@@ -0,0 +1,52 @@
+package Finals_OS.bench;
+
+import Finals_OS.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures schedule() throughput for every algorithm except Round Robin, which
+ * has its own benchmark because it also sweeps the time quantum. Run with
+ * "-prof gc" to see the allocation rate.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SchedulerBenchmark {
+
+    @Param({ "FCFS", "SJF", "SRTF", "PRIORITY", "PRIORITY_PREEMPTIVE" })
+    public Algorithm algorithm;
+
+    @Param({ "1000", "100000", "1000000" })
+    public int processes;
+
+    @Param({ "UNIFORM", "EXPONENTIAL", "PARETO" })
+    public WorkloadGenerator.BurstDistribution burst;
+
+    @Param({ "0.5", "0.95", "2.0" })
+    public double load;
+
+    @Param({ "true", "false" })
+    public boolean recordGantt;
+
+    private Workload workload;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = BenchmarkWorkloads.create(processes, burst, load, 42);
+    }
+
+    @Benchmark
+    public SchedulingAlgorithm schedule() {
+        // Each run gets fresh result columns; the input columns are shared
+        SchedulingAlgorithm scheduler = algorithm.create(workload.copy(), 0);
+        if (!recordGantt) {
+            scheduler.setGanttSink(GanttSink.NONE);
+        }
+        scheduler.schedule();
+        return scheduler;
+    }
+}
@@ -0,0 +1,90 @@
+package Finals_OS;
+
+/**
+ * Ready queue for aged priority keys, with processes of equal keys leaving in
+ * the order they were added. It is a BucketQueue while the queued keys span at
+ * most a few buckets per process, which covers the usual small priority range.
+ * A key that would stretch the ring beyond that, such as a priority far from
+ * the others, moves the queue into a heap once; the order of the processes is
+ * the same either way, only the cost per operation becomes O(log n).
+ */
+class AgedPriorityQueue implements ProcessQueue {
+    private static final int BUCKETS_PER_PROCESS = 4; // Largest key span a BucketQueue may cover, per process
+    private static final int MIN_BUCKETS = 64; // Key span always allowed, for small workloads
+
+    private final int processes; // Number of processes; indices must be below it
+    private final long maxSpan; // Largest key span the bucket queue may cover
+    private BucketQueue buckets; // Queued processes while their keys span few buckets, otherwise null
+    private ProcessHeap heap; // Queued processes once the keys spread out, otherwise null
+    private long[] sequence; // Order in which each queued process was added, for the heap's ties
+    private long nextSequence; // Sequence number of the next process added to the heap
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param processes Number of processes; indices must be below it
+     */
+    AgedPriorityQueue(int processes) {
+        this.processes = processes;
+        this.maxSpan = Math.max(MIN_BUCKETS, (long) BUCKETS_PER_PROCESS * processes);
+        this.buckets = new BucketQueue(processes);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return buckets != null ? buckets.isEmpty() : heap.isEmpty();
+    }
+
+    @Override
+    public int size() {
+        return buckets != null ? buckets.size() : heap.size();
+    }
+
+    @Override
+    public void offer(int processIndex, long processKey) {
+        if (buckets != null && buckets.spanWith(processKey) > maxSpan) {
+            moveToHeap();
+        }
+        if (buckets != null) {
+            buckets.offer(processIndex, processKey);
+        } else {
+            sequence[processIndex] = nextSequence++;
+            heap.offer(processIndex, processKey);
+        }
+    }
+
+    @Override
+    public int peek() {
+        return buckets != null ? buckets.peek() : heap.peek();
+    }
+
+    @Override
+    public long peekKey() {
+        return buckets != null ? buckets.peekKey() : heap.peekKey();
+    }
+
+    @Override
+    public int poll() {
+        return buckets != null ? buckets.poll() : heap.poll();
+    }
+
+    // Moves the queued processes into a heap that breaks ties by the order they were added
+    private void moveToHeap() {
+        long[] order = new long[processes];
+        ProcessHeap fifo = new ProcessHeap(Math.max(MIN_BUCKETS, buckets.size())) {
+            @Override
+            boolean before(int indexA, int indexB) {
+                return order[indexA] < order[indexB];
+            }
+        };
+        while (!buckets.isEmpty()) {
+            long key = buckets.peekKey();
+            int processIndex = buckets.poll(); // Smallest key first, in the order added within a key
+            order[processIndex] = nextSequence++;
+            fifo.offer(processIndex, key);
+        }
+        sequence = order;
+        heap = fifo;
+        buckets = null;
+    }
+}
@@ -0,0 +1,102 @@
+package Finals_OS;
+
+/**
+ * The scheduling algorithms offered by the simulator, with the names used to
+ * select them from the command line.
+ */
+public enum Algorithm {
+    FCFS("fcfs", "First Come First Serve (FCFS)"),
+    SJF("sjf", "Shortest Job First (SJF)"),
+    SRTF("srtf", "Shortest Remaining Time First (SRTF)"),
+    PRIORITY("priority", "Priority Scheduling (Non-Preemptive)"),
+    PRIORITY_PREEMPTIVE("priority-preemptive", "Priority Scheduling (Preemptive)"),
+    ROUND_ROBIN("rr", "Round Robin"),
+    MLFQ("mlfq", "Multi-Level Feedback Queue (MLFQ)"),
+    CFS("cfs", "Completely Fair Scheduler (CFS)"),
+    LOTTERY("lottery", "Lottery Scheduling"),
+    STRIDE("stride", "Stride Scheduling");
+
+    private final String commandName; // Name used on the command line
+    private final String title; // Name shown to the user
+
+    Algorithm(String commandName, String title) {
+        this.commandName = commandName;
+        this.title = title;
+    }
+
+    public String getCommandName() {
+        return commandName;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Returns true if the algorithm needs a time quantum.
+     *
+     * @return True for Round Robin, MLFQ, CFS, lottery and stride
+     */
+    public boolean usesTimeQuantum() {
+        return this == ROUND_ROBIN || this == MLFQ || this == CFS || this == LOTTERY || this == STRIDE;
+    }
+
+    /**
+     * Returns true if ResultCache can restore the algorithm's results. Lottery
+     * and stride report each process's share deviation, which a cached result
+     * does not hold, so they are always scheduled.
+     *
+     * @return False for lottery and stride
+     */
+    public boolean isCacheable() {
+        return this != LOTTERY && this != STRIDE;
+    }
+
+    /**
+     * Creates a scheduler for the given workload.
+     *
+     * @param workload    Workload to schedule
+     * @param timeQuantum Time quantum (Round Robin, MLFQ's top level, CFS's minimum granularity, lottery and stride)
+     * @return New scheduler instance
+     */
+    public SchedulingAlgorithm create(Workload workload, int timeQuantum) {
+        switch (this) {
+            case FCFS:
+                return new FCFSClass(workload);
+            case SJF:
+                return new SJFSClass(workload);
+            case SRTF:
+                return new SRTFClass(workload);
+            case PRIORITY:
+                return new PrioritySchedulingClass(workload, false); // Non-Preemptive
+            case PRIORITY_PREEMPTIVE:
+                return new PrioritySchedulingClass(workload, true); // Preemptive
+            case MLFQ:
+                return new MLFQClass(workload, timeQuantum); // Default levels and boost interval
+            case CFS:
+                return new CFSClass(workload, timeQuantum); // Default target latency
+            case LOTTERY:
+                return new LotteryClass(workload, timeQuantum); // Default seed
+            case STRIDE:
+                return new StrideClass(workload, timeQuantum);
+            default:
+                return new RoundRobinClass(workload, timeQuantum);
+        }
+    }
+
+    /**
+     * Looks up an algorithm by its command-line name (case-insensitive).
+     *
+     * @param name Command-line name, e.g. "srtf" or "rr"
+     * @return Matching algorithm
+     * @throws IllegalArgumentException If no algorithm has that name
+     */
+    public static Algorithm fromCommandName(String name) {
+        for (Algorithm algorithm : values()) {
+            if (algorithm.commandName.equalsIgnoreCase(name)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown algorithm: " + name);
+    }
+}
@@ -0,0 +1,118 @@
+package Finals_OS;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs every scheduling algorithm on the same workload at the same time and
+ * prints their metrics side by side. Each algorithm schedules its own copy of
+ * the workload, so the runs cannot see each other's results.
+ */
+public class AlgorithmComparison {
+    private final Workload workload; // Shared, read-only input columns
+    private final int timeQuantum; // Time quantum for Round Robin and MLFQ, minimum granularity for CFS
+    private final Map<Algorithm, SchedulingAlgorithm> results; // Finished schedulers, in menu order
+    private ResultCache cache; // Cache of earlier results, or null to always schedule
+
+    /**
+     * Creates a comparison.
+     *
+     * @param workload    Workload to schedule
+     * @param timeQuantum Time quantum for Round Robin and MLFQ, minimum granularity for CFS (at least 1)
+     */
+    public AlgorithmComparison(Workload workload, int timeQuantum) {
+        if (timeQuantum < 1) {
+            throw new IllegalArgumentException("Invalid time quantum: " + timeQuantum);
+        }
+        this.workload = workload;
+        this.timeQuantum = timeQuantum;
+        this.results = new EnumMap<>(Algorithm.class);
+    }
+
+    /**
+     * Reuses results of earlier runs with the same inputs from a cache, and stores
+     * new results in it.
+     *
+     * @param cache Result cache, or null to always schedule
+     */
+    public void setResultCache(ResultCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Schedules the workload with every algorithm on a thread pool and waits for
+     * all of them to finish.
+     *
+     * @throws InterruptedException If interrupted while waiting
+     * @throws ExecutionException   If an algorithm fails
+     */
+    public void run() throws InterruptedException, ExecutionException {
+        Algorithm[] algorithms = Algorithm.values();
+        int threads = Math.min(algorithms.length, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            Map<Algorithm, Future<SchedulingAlgorithm>> futures = new EnumMap<>(Algorithm.class);
+            for (Algorithm algorithm : algorithms) {
+                futures.put(algorithm, pool.submit(() -> {
+                    if (cache != null) {
+                        return cache.schedule(workload.copy(), algorithm, timeQuantum, false);
+                    }
+                    SchedulingAlgorithm scheduler = algorithm.create(workload.copy(), timeQuantum);
+                    scheduler.setGanttSink(GanttSink.NONE); // Only the metrics are compared
+                    scheduler.schedule();
+                    return scheduler;
+                }));
+            }
+            for (Map.Entry<Algorithm, Future<SchedulingAlgorithm>> entry : futures.entrySet()) {
+                results.put(entry.getKey(), entry.getValue().get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the finished scheduler of an algorithm.
+     *
+     * @param algorithm Algorithm to look up
+     * @return Scheduler holding the results, or null if run() has not finished
+     */
+    public SchedulingAlgorithm getResult(Algorithm algorithm) {
+        return results.get(algorithm);
+    }
+
+    /**
+     * Displays one row of metrics per algorithm, including the 99th percentile
+     * waiting time.
+     */
+    public void displayResults() {
+        try {
+            ResultRenderer out = ResultRenderer.standardOutput();
+            renderResults(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error displaying comparison: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the comparison table to a renderer.
+     *
+     * @param out Renderer to write to
+     * @throws IOException If the output cannot be written
+     */
+    public void renderResults(ResultRenderer out) throws IOException {
+        out.appendf("\n%-40s %10s %10s %10s %10s\n", "Algorithm", "AveTAT", "AveWT", "p99 WT", "CPU Util");
+        for (Map.Entry<Algorithm, SchedulingAlgorithm> entry : results.entrySet()) {
+            SchedulingAlgorithm scheduler = entry.getValue();
+            String title = entry.getKey().getTitle();
+            if (entry.getKey().usesTimeQuantum()) {
+                title += " (q=" + timeQuantum + ")";
+            }
+            out.appendf("%-40s %10.2f %10.2f %10d %9.2f%%\n", title, scheduler.getAvgTurnAroundTime(),
+                    scheduler.getAvgWaitingTime(), scheduler.getMetrics().getWaitingTime().getPercentile(99),
+                    scheduler.getCpuUtilization());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package Finals_OS;
+
+import java.util.*;
+
+/**
+ * Bucket (calendar) queue of process indices with integer keys. Each bucket is
+ * a FIFO list of the processes with one key, linked through a per-process
+ * array, and the buckets form a ring covering the keys from the smallest queued
+ * key up. The smallest key is found by scanning forward from the last one
+ * found, so while new keys stay within a small range above the smallest key
+ * processed, as priorities do, every operation costs amortized O(1). The ring
+ * doubles when the queued keys span more buckets than it has.
+ *
+ * Processes with equal keys leave in the order they were added.
+ */
+class BucketQueue implements ProcessQueue {
+    private static final int DEFAULT_BUCKETS = 64; // Initial ring size, a power of two
+
+    private final int[] next; // Next process in the same bucket, or -1
+    private int[] head; // First process of each bucket, or -1 if the bucket is empty
+    private int[] tail; // Last process of each bucket (valid while the bucket is not empty)
+    private long minKey; // No queued key is smaller; where the scan for the smallest key starts
+    private long maxKey; // No queued key is larger
+    private int size; // Number of queued processes
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param processes Number of processes; indices must be below it
+     */
+    BucketQueue(int processes) {
+        this.next = new int[processes];
+        this.head = new int[DEFAULT_BUCKETS];
+        this.tail = new int[DEFAULT_BUCKETS];
+        Arrays.fill(head, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void offer(int processIndex, long processKey) {
+        if (size == 0) {
+            minKey = processKey;
+            maxKey = processKey;
+        } else {
+            long low = Math.min(minKey, processKey);
+            long high = Math.max(maxKey, processKey);
+            if (high - low >= head.length) {
+                grow(high - low + 1);
+            }
+            minKey = low;
+            maxKey = high;
+        }
+        int bucket = bucket(processKey);
+        next[processIndex] = -1;
+        if (head[bucket] == -1) {
+            head[bucket] = processIndex;
+        } else {
+            next[tail[bucket]] = processIndex;
+        }
+        tail[bucket] = processIndex;
+        size++;
+    }
+
+    /**
+     * Returns how many buckets the ring would have to cover after adding a key.
+     *
+     * @param processKey Key that would be added
+     * @return Span of the queued keys and the new one, in buckets
+     */
+    long spanWith(long processKey) {
+        if (size == 0) {
+            return 1;
+        }
+        return Math.max(maxKey, processKey) - Math.min(minKey, processKey) + 1;
+    }
+
+    @Override
+    public int peek() {
+        return head[firstBucket()];
+    }
+
+    @Override
+    public long peekKey() {
+        firstBucket();
+        return minKey;
+    }
+
+    @Override
+    public int poll() {
+        int bucket = firstBucket();
+        int processIndex = head[bucket];
+        head[bucket] = next[processIndex];
+        size--;
+        return processIndex;
+    }
+
+    // Moves minKey forward to the smallest queued key and returns its bucket (the queue must not be empty)
+    private int firstBucket() {
+        int bucket = bucket(minKey);
+        while (head[bucket] == -1) {
+            minKey++;
+            bucket = bucket(minKey);
+        }
+        return bucket;
+    }
+
+    // Bucket of a key; the ring size is a power of two, so this is the key modulo the size, negative keys included
+    private int bucket(long key) {
+        return (int) key & (head.length - 1);
+    }
+
+    // Enlarges the ring to cover span keys, moving each bucket of the queued range to its new place
+    private void grow(long span) {
+        if (span > 1 << 30) {
+            throw new IllegalStateException("Queued keys span too many buckets: " + span);
+        }
+        int[] oldHead = head;
+        int[] oldTail = tail;
+        int buckets = Math.max(head.length * 2, Integer.highestOneBit((int) span - 1) << 1);
+        head = new int[buckets];
+        tail = new int[buckets];
+        Arrays.fill(head, -1);
+        for (long key = minKey; key <= maxKey; key++) {
+            int from = (int) key & (oldHead.length - 1);
+            int to = bucket(key);
+            head[to] = oldHead[from];
+            tail[to] = oldTail[from];
+        }
+    }
+}
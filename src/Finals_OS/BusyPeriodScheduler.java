@@ -0,0 +1,231 @@
+package Finals_OS;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Runs one of the single-CPU algorithms on a large trace in parallel by
+ * splitting it into busy periods. Every algorithm here is work-conserving, so
+ * whenever the CPU goes idle nothing that happened before can affect what
+ * happens after: the processes that arrive later see an empty CPU either way.
+ *
+ * The busy periods are found from the arrival and burst times alone. Runs of
+ * consecutive periods are scheduled as separate workloads on a fork/join pool,
+ * and their results, Gantt Charts and metrics are stitched back together. The
+ * result is identical to scheduling the whole trace at once; a dense trace
+ * with a single busy period is simply scheduled serially.
+ */
+public class BusyPeriodScheduler extends SchedulingAlgorithm {
+    private static final int TASKS_PER_THREAD = 4; // Groups of periods per pool thread, to even out their sizes
+
+    private final Algorithm algorithm; // Scheduling policy used for every busy period
+    private final int timeQuantum; // Time quantum, for the algorithms that use one
+    private final ForkJoinPool pool; // Pool the busy periods are scheduled on
+    private int busyPeriods; // Number of busy periods in the last run
+
+    public BusyPeriodScheduler(Process[] processes, Algorithm algorithm, int timeQuantum) {
+        this(Workload.fromProcesses(processes), algorithm, timeQuantum, ForkJoinPool.commonPool());
+        this.processes = processes;
+    }
+
+    public BusyPeriodScheduler(Workload workload, Algorithm algorithm, int timeQuantum) {
+        this(workload, algorithm, timeQuantum, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a scheduler that splits the workload into busy periods.
+     *
+     * @param workload    Workload to schedule
+     * @param algorithm   Scheduling policy used for every busy period
+     * @param timeQuantum Time quantum, for the algorithms that use one
+     * @param pool        Pool the busy periods are scheduled on
+     */
+    public BusyPeriodScheduler(Workload workload, Algorithm algorithm, int timeQuantum, ForkJoinPool pool) {
+        super(workload);
+        if (algorithm.usesTimeQuantum() && timeQuantum <= 0) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " needs a positive time quantum");
+        }
+        if (algorithm == Algorithm.LOTTERY) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " draws from one random sequence and cannot be split");
+        }
+        if (algorithm == Algorithm.STRIDE) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " measures shares over the whole run and cannot be split");
+        }
+        this.algorithm = algorithm;
+        this.timeQuantum = timeQuantum;
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the number of busy periods found in the last run.
+     *
+     * @return Number of busy periods
+     */
+    public int getBusyPeriodCount() {
+        return busyPeriods;
+    }
+
+    @Override
+    public void schedule() {
+        try {
+            int n = workload.size();
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int[] periodStart = findBusyPeriods(order); // Position in order where each period starts
+            busyPeriods = periodStart.length;
+
+            // Group consecutive periods so that each task schedules a similar number of processes
+            int tasks = Math.max(1, pool.getParallelism() * TASKS_PER_THREAD);
+            int groupSize = Math.max(1, (n + tasks - 1) / tasks);
+            List<Integer> groupStarts = new ArrayList<>(); // Position in order where each group starts
+            for (int p = 0; p < periodStart.length; p++) {
+                if (groupStarts.isEmpty() || periodStart[p] - groupStarts.get(groupStarts.size() - 1) >= groupSize) {
+                    groupStarts.add(periodStart[p]);
+                }
+            }
+            int groups = groupStarts.size();
+            int[] bounds = new int[groups + 1];
+            for (int g = 0; g < groups; g++) {
+                bounds[g] = groupStarts.get(g);
+            }
+            bounds[groups] = n;
+
+            // Schedule every group as its own workload
+            boolean recordGantt = isRecordingGantt();
+            Group[] results = new Group[groups];
+            if (groups == 1) {
+                results[0] = scheduleGroup(order, 0, n, recordGantt);
+            } else {
+                pool.invoke(new GroupTask(order, bounds, 0, groups, recordGantt, results));
+            }
+
+            // Stitch the groups together in time order
+            long dispatches = 0;
+            long contextSwitches = 0;
+            for (int g = 0; g < groups; g++) {
+                Group group = results[g];
+                SchedulingAlgorithm part = group.scheduler;
+                Workload sub = part.workload;
+                for (int j = 0; j < sub.size(); j++) {
+                    int i = group.indices[j];
+                    workload.completionTime[i] = sub.completionTime[j];
+                    workload.responseTime[i] = sub.responseTime[j];
+                    metrics.onComplete(sub.completionTime[j], i, workload.AT[i], workload.BT[i],
+                            (long) workload.AT[i] + workload.responseTime[i]);
+                }
+
+                GanttChart chart = part.getGanttChart();
+                if (chart != null) {
+                    for (int s = 0; s < chart.size(); s++) {
+                        int label = chart.label(s);
+                        if (label == GanttSink.IDLE) {
+                            // A group's first idle segment starts at 0; it really starts where the previous group ended
+                            addIdleTimeToGanttChart(Math.max(currentTime, chart.startTime(s)), chart.endTime(s));
+                        } else {
+                            addToGanttChart(group.indices[label], chart.startTime(s), chart.endTime(s));
+                        }
+                    }
+                }
+
+                // Dispatching the first process of a group switches away from the last one of the previous group
+                long groupDispatches = part.getMetrics().getDispatches();
+                if (groupDispatches > 0 && dispatches > 0) {
+                    contextSwitches++;
+                }
+                dispatches += groupDispatches;
+                contextSwitches += part.getMetrics().getContextSwitches();
+                currentTime = part.currentTime;
+            }
+            metrics.addDispatches(dispatches, contextSwitches);
+
+            calculateMetrics(); // Calculate the average metrics and CPU utilization
+        } catch (Exception e) {
+            System.err.println("Error during busy period scheduling: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Positions in order where a busy period starts: the CPU would be idle just before each of them
+    private int[] findBusyPeriods(int[] order) {
+        int[] starts = new int[16];
+        int count = 0;
+        long busyUntil = Long.MIN_VALUE; // Time the work that arrived so far would be finished
+        for (int k = 0; k < order.length; k++) {
+            int i = order[k];
+            if (workload.AT[i] > busyUntil) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                }
+                starts[count++] = k;
+                busyUntil = workload.AT[i];
+            }
+            busyUntil += workload.BT[i];
+        }
+        return Arrays.copyOf(starts, count);
+    }
+
+    // Schedules the processes at positions from to to - 1 of order as a workload of their own
+    private Group scheduleGroup(int[] order, int from, int to, boolean recordGantt) {
+        // Keep the processes in index order, so ties are broken exactly as in a serial run
+        int[] indices = Arrays.copyOfRange(order, from, to);
+        Arrays.sort(indices);
+        int size = indices.length;
+        int[] AT = new int[size];
+        int[] BT = new int[size];
+        int[] priority = new int[size];
+        for (int j = 0; j < size; j++) {
+            AT[j] = workload.AT[indices[j]];
+            BT[j] = workload.BT[indices[j]];
+            priority[j] = workload.priority[indices[j]];
+        }
+
+        SchedulingAlgorithm scheduler = algorithm.create(new Workload(AT, BT, priority), timeQuantum);
+        if (!recordGantt) {
+            scheduler.setGanttSink(GanttSink.NONE);
+        }
+        scheduler.getMetrics().setTracksPercentiles(false); // Completions are recorded again in the combined metrics
+        scheduler.schedule();
+        return new Group(indices, scheduler);
+    }
+
+    // A scheduled group: the original index of each process in it and the scheduler holding its results
+    private static final class Group {
+        final int[] indices;
+        final SchedulingAlgorithm scheduler;
+
+        Group(int[] indices, SchedulingAlgorithm scheduler) {
+            this.indices = indices;
+            this.scheduler = scheduler;
+        }
+    }
+
+    // Schedules groups first to last - 1, splitting the range in half until one group is left
+    @SuppressWarnings("serial") // Never serialized
+    private final class GroupTask extends RecursiveAction {
+        private final int[] order;
+        private final int[] bounds;
+        private final int first;
+        private final int last;
+        private final boolean recordGantt;
+        private final Group[] results;
+
+        GroupTask(int[] order, int[] bounds, int first, int last, boolean recordGantt, Group[] results) {
+            this.order = order;
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last;
+            this.recordGantt = recordGantt;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                results[first] = scheduleGroup(order, bounds[first], bounds[first + 1], recordGantt);
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new GroupTask(order, bounds, first, middle, recordGantt, results),
+                    new GroupTask(order, bounds, middle, last, recordGantt, results));
+        }
+    }
+}
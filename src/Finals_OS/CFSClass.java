@@ -0,0 +1,192 @@
+package Finals_OS;
+
+/**
+ * Completely Fair Scheduling, modelled on the Linux scheduler. Each process
+ * has a weight derived from its priority, used as a nice value: priority 0 has
+ * weight 1024, and each step up or down changes the weight by about 25%.
+ *
+ * Running for t time units adds t * 1024 / weight to a process's virtual
+ * runtime, and the process with the smallest virtual runtime always runs
+ * next. Its timeslice is its share, by weight, of the scheduling period: the
+ * target latency, stretched so that every runnable process gets at least the
+ * minimum granularity. A new process starts at the smallest virtual runtime
+ * seen so far, so it cannot claim the CPU for the time it was absent.
+ *
+ * Arrivals do not preempt the running process. Ready processes are kept in a
+ * heap keyed by virtual runtime, so each decision costs O(log n) even with a
+ * million runnable processes.
+ */
+public class CFSClass extends SchedulingAlgorithm {
+    private static final int NICE_0_WEIGHT = 1024; // Weight of priority 0
+    private static final int MIN_NICE = -20; // Highest priority with its own weight
+    private static final int MAX_NICE = 19; // Lowest priority with its own weight
+    private static final long VRUNTIME_SCALE = (long) NICE_0_WEIGHT << 10; // Fixed point: a time unit at weight 1024 adds 1024
+    private static final int DEFAULT_LATENCY_GRANULES = 8; // Default target latency, in minimum granularities
+
+    // Weights of priorities -20 to 19 (the Linux nice-to-weight table)
+    private static final int[] WEIGHTS = {
+            88761, 71755, 56483, 46273, 36291,
+            29154, 23254, 18705, 14949, 11916,
+            9548, 7620, 6100, 4904, 3906,
+            3121, 2501, 1991, 1586, 1277,
+            1024, 820, 655, 526, 423,
+            335, 272, 215, 172, 137,
+            110, 87, 70, 56, 45,
+            36, 29, 23, 18, 15 };
+
+    private final int targetLatency; // Period in which every runnable process should run once
+    private final int minGranularity; // Shortest timeslice
+
+    /**
+     * Creates a CFS scheduler whose target latency is 8 minimum granularities.
+     *
+     * @param processes      Array of processes to schedule
+     * @param minGranularity Shortest timeslice
+     */
+    public CFSClass(Process[] processes, int minGranularity) {
+        this(processes, minGranularity * DEFAULT_LATENCY_GRANULES, minGranularity);
+    }
+
+    public CFSClass(Workload workload, int minGranularity) {
+        this(workload, minGranularity * DEFAULT_LATENCY_GRANULES, minGranularity);
+    }
+
+    /**
+     * Creates a CFS scheduler.
+     *
+     * @param processes      Array of processes to schedule
+     * @param targetLatency  Period in which every runnable process should run once
+     * @param minGranularity Shortest timeslice
+     */
+    public CFSClass(Process[] processes, int targetLatency, int minGranularity) {
+        super(processes);
+        checkTimeslices(targetLatency, minGranularity);
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+    }
+
+    public CFSClass(Workload workload, int targetLatency, int minGranularity) {
+        super(workload);
+        checkTimeslices(targetLatency, minGranularity);
+        this.targetLatency = targetLatency;
+        this.minGranularity = minGranularity;
+    }
+
+    /**
+     * Returns the weight of a priority, which is used as a nice value.
+     *
+     * @param priority Priority (lower value means higher priority)
+     * @return Weight, from 15 to 88761
+     */
+    public static int weightOf(int priority) {
+        return WEIGHTS[Math.max(MIN_NICE, Math.min(MAX_NICE, priority)) - MIN_NICE];
+    }
+
+    @Override
+    public void schedule() {
+        try {
+            int n = workload.size();
+            int[] remainingTime = workload.BT.clone(); // Remaining burst time of each process
+            long[] vruntime = new long[n]; // Virtual runtime of each process
+            long minVruntime = 0; // Smallest virtual runtime seen; never decreases
+            long totalWeight = 0; // Sum of the weights of the runnable processes
+            int runnable = 0; // Number of runnable processes, including the running one
+
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            ProcessHeap readyQueue = new ProcessHeap(n); // Ready processes keyed by virtual runtime
+            int running = -1; // Process holding the CPU, or -1
+            long sliceEnd = 0; // Time the running process's timeslice ends
+            int completed = 0; // Number of completed processes
+
+            currentTime = workload.AT[order[0]]; // Start time is the earliest arrival time
+
+            // Check for initial idle time before the first process arrives
+            if (currentTime > 0) {
+                addIdleTimeToGanttChart(0, currentTime);
+            }
+
+            while (completed < n) {
+                // New processes start at the smallest virtual runtime
+                while (nextArrival < n && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
+                        vruntime[i] = minVruntime;
+                        readyQueue.offer(i, vruntime[i]);
+                        totalWeight += weightOf(workload.priority[i]);
+                        runnable++;
+                    } else {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
+                    }
+                }
+
+                if (running == -1) {
+                    if (readyQueue.isEmpty()) {
+                        if (completed == n) {
+                            break; // The last arrivals had zero-length bursts
+                        }
+                        // If no process is ready, move time forward to the next arrival time
+                        int nextArrivalTime = workload.AT[order[nextArrival]];
+                        addIdleTimeToGanttChart(currentTime, nextArrivalTime);
+                        currentTime = nextArrivalTime;
+                        continue;
+                    }
+
+                    // Run the process with the smallest virtual runtime for its share of the period
+                    long selection = startSelection(readyQueue.size());
+                    running = readyQueue.poll();
+                    endSelection(selection);
+                    long period = Math.max(targetLatency, (long) runnable * minGranularity);
+                    long slice = period * weightOf(workload.priority[running]) / totalWeight;
+                    sliceEnd = currentTime + Math.max(minGranularity, slice);
+                    recordDispatch(running, currentTime);
+                }
+
+                // Run until the process completes, its timeslice ends or the next process arrives
+                long runUntil = Math.min((long) currentTime + remainingTime[running], sliceEnd);
+                if (nextArrival < n) {
+                    runUntil = Math.min(runUntil, workload.AT[order[nextArrival]]);
+                }
+                int executionTime = (int) (runUntil - currentTime);
+                addToGanttChart(running, currentTime, (int) runUntil); // Merged if continuing
+                currentTime = (int) runUntil;
+                remainingTime[running] -= executionTime;
+                int weight = weightOf(workload.priority[running]);
+                vruntime[running] += executionTime * VRUNTIME_SCALE / weight;
+
+                // The smallest virtual runtime moves forward with the running and waiting processes
+                long smallest = vruntime[running];
+                if (!readyQueue.isEmpty()) {
+                    smallest = Math.min(smallest, readyQueue.peekKey());
+                }
+                minVruntime = Math.max(minVruntime, smallest);
+
+                if (remainingTime[running] == 0) {
+                    recordCompletion(running, currentTime); // Set completion time
+                    completed++;
+                    totalWeight -= weight;
+                    runnable--;
+                    running = -1;
+                } else if (currentTime == sliceEnd) {
+                    readyQueue.offer(running, vruntime[running]); // Timeslice over; back into the tree
+                    running = -1;
+                }
+            }
+
+            calculateMetrics(); // Calculate the average metrics and CPU utilization
+        } catch (Exception e) {
+            System.err.println("Error during CFS scheduling: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    private static void checkTimeslices(int targetLatency, int minGranularity) {
+        if (minGranularity <= 0) {
+            throw new IllegalArgumentException("CFS needs a positive minimum granularity");
+        }
+        if (targetLatency < minGranularity) {
+            throw new IllegalArgumentException("Target latency must be at least the minimum granularity");
+        }
+    }
+}
@@ -0,0 +1,524 @@
+package Finals_OS;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Checkpointing of one scheduler's event loop, owned by the schedulers that
+ * support it (SRTFClass and RoundRobinClass). The loop asks checkpointDue()
+ * once per iteration and, if it is due, fills in a checkpoint from
+ * newCheckpoint() with its ready queue and passes it to writeCheckpoint(). At
+ * the start of schedule() it calls takeResumeState() to continue from a
+ * checkpoint instead of starting over.
+ *
+ * Checkpoints either go to a file at most once per wall-clock interval, or
+ * are kept in memory in compact form every few thousand loop iterations for
+ * IncrementalScheduler. A run with kept checkpoints can replay an edited
+ * workload from one of them, and the loop reports each point where the CPU
+ * goes idle with idleUntilArrival(), where such a replay can rejoin the
+ * previous run and end early.
+ */
+final class CheckpointSupport {
+    private static final int CHECK_EVENTS = 4096; // Loop iterations between reads of the clock
+    private static final int IDLE_CHECKPOINT_FRACTION = 8; // Idle points are kept this many times as often
+    private static final int MAX_WRITE_FAILURES = 3; // Failed writes in a row before checkpoints are turned off
+
+    private final SchedulingAlgorithm scheduler; // Scheduler whose loop is checkpointed
+    private final int parameter; // Setting that changes the schedule, such as the time quantum
+    private Path file; // File checkpoints are written to, or null for no checkpoint files
+    private long intervalNanos; // Least wall-clock time between two checkpoints
+    private long lastWriteNanos; // Time the last checkpoint was written
+    private int writeFailures; // Checkpoint writes that failed in a row
+    private int eventsUntilCheck; // Loop iterations left before the clock is read again
+    private SchedulerCheckpoint resumeState; // Checkpoint the next schedule() continues from, or null
+    private List<SchedulerCheckpoint> kept; // Compact checkpoints kept in memory, or null
+    private int keepEveryEvents; // Loop iterations between two kept checkpoints
+    private Replay replay; // Replay of an edited workload that can rejoin the previous run, or null
+
+    /**
+     * Creates the checkpoint support of a scheduler.
+     *
+     * @param scheduler Scheduler whose loop is checkpointed
+     * @param parameter Setting that changes the schedule, such as the time
+     *                  quantum; a checkpoint can only be resumed with the same
+     *                  setting
+     */
+    CheckpointSupport(SchedulingAlgorithm scheduler, int parameter) {
+        this.scheduler = scheduler;
+        this.parameter = parameter;
+    }
+
+    /**
+     * Makes the loop write its full state to a file at most once per interval.
+     * The file's directory must exist and be writable. After a few failed writes
+     * in a row, checkpoints are turned off for the rest of the run.
+     *
+     * @param file           File to write checkpoints to (replaced each time)
+     * @param intervalMillis Least wall-clock time between two checkpoints
+     * @throws IOException If checkpoints cannot be written to the file's directory
+     */
+    void setFile(Path file, long intervalMillis) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        if (!Files.isDirectory(directory)) {
+            throw new IOException("Checkpoint directory does not exist: " + directory);
+        }
+        if (!Files.isWritable(directory)) {
+            throw new IOException("Checkpoint directory is not writable: " + directory);
+        }
+        if (Files.isDirectory(file)) {
+            throw new IOException("Checkpoint file is a directory: " + file);
+        }
+        this.file = file;
+        this.intervalNanos = intervalMillis * 1_000_000;
+        this.lastWriteNanos = System.nanoTime();
+        this.writeFailures = 0;
+        this.eventsUntilCheck = CHECK_EVENTS;
+    }
+
+    /**
+     * Makes the next run continue from a checkpoint file.
+     *
+     * @param file Checkpoint file written by an earlier run of the same scheduler
+     * @throws IOException If the checkpoint cannot be read or belongs to another
+     *                     scheduler, setting or workload
+     */
+    void resumeFrom(Path file) throws IOException {
+        SchedulerCheckpoint checkpoint = SchedulerCheckpoint.read(file);
+        if (!checkpoint.algorithm.equals(scheduler.getClass().getSimpleName()) || checkpoint.parameter != parameter) {
+            throw new IOException("Checkpoint was written by " + checkpoint.algorithm + " with setting "
+                    + checkpoint.parameter);
+        }
+        Workload workload = scheduler.workload;
+        if (checkpoint.remainingTime.length != workload.size()
+                || !checkpoint.workloadHash.equals(workload.contentHash())) {
+            throw new IOException("Checkpoint was written for a different workload");
+        }
+        resumeState = checkpoint;
+    }
+
+    /**
+     * Makes the loop add a compact checkpoint to a list every given number of
+     * iterations instead of writing checkpoint files.
+     *
+     * @param checkpoints List the checkpoints are appended to
+     * @param everyEvents Loop iterations between two checkpoints
+     */
+    void keep(List<SchedulerCheckpoint> checkpoints, int everyEvents) {
+        this.kept = checkpoints;
+        this.keepEveryEvents = everyEvents;
+        this.eventsUntilCheck = everyEvents;
+    }
+
+    /**
+     * Makes the next run replay an edited workload from a checkpoint kept by the
+     * previous run. Once the replay goes idle at a point where the previous run
+     * was idle too, after the edit, the rest of the schedule cannot have
+     * changed: the previous run's results, Gantt Chart segments and checkpoints
+     * from there on are taken over and the run ends. The caller makes sure the
+     * checkpoint is from before the edit, and calls finishReplay() after the
+     * run.
+     *
+     * @param checkpoint  Checkpoint kept by the previous run
+     * @param previous    Finished scheduler of the previous run, on the same
+     *                    workload object; its Gantt Chart becomes this one's
+     * @param candidates  Checkpoints the previous run kept after the checkpoint
+     * @param rejoinAfter Time after which the runs can rejoin: the later of the
+     *                    edited process's old and new arrival times
+     */
+    void replayFrom(SchedulerCheckpoint checkpoint, SchedulingAlgorithm previous, SchedulerCheckpoint[] candidates,
+            int rejoinAfter) {
+        resumeState = checkpoint;
+        replay = new Replay(previous, candidates, rejoinAfter);
+    }
+
+    /**
+     * Call after a replay's run. Puts the replayed Gantt Chart segments in place
+     * of those they replace in the previous run's chart, which becomes the
+     * scheduler's Gantt Chart.
+     */
+    void finishReplay() {
+        if (replay != null && replay.ganttBase != null) {
+            replay.ganttBase.splice(replay.ganttOffset, replay.ganttEnd, scheduler.ganttChart);
+            scheduler.setGanttSink(replay.ganttBase);
+            replay.ganttBase = null;
+        }
+    }
+
+    /**
+     * Returns the time at which the last replay rejoined the previous run.
+     *
+     * @return Rejoin time, or -1 if the run did not rejoin one
+     */
+    int getRejoinTime() {
+        return replay != null ? replay.rejoinTime : -1;
+    }
+
+    /**
+     * Returns true if a checkpoint should be taken now. Call once per iteration
+     * of the event loop; the clock is only read every few thousand calls.
+     *
+     * @return True if checkpoints are on and the interval has passed
+     */
+    boolean checkpointDue() {
+        if ((file == null && kept == null) || --eventsUntilCheck > 0) {
+            return false;
+        }
+        if (kept != null) {
+            eventsUntilCheck = keepEveryEvents;
+            return true;
+        }
+        eventsUntilCheck = CHECK_EVENTS;
+        return System.nanoTime() - lastWriteNanos >= intervalNanos;
+    }
+
+    /**
+     * Creates a checkpoint holding the scheduler's results so far, its dispatch
+     * tracking and Gantt Chart, and the common loop state. The caller adds its
+     * ready queue and anything else its loop needs, then passes it to
+     * writeCheckpoint().
+     *
+     * @param order         Process indices in arrival order
+     * @param nextArrival   Position in order of the next process to arrive
+     * @param completed     Number of completed processes
+     * @param remainingTime Remaining burst time of each process (not copied)
+     * @return Checkpoint of the current state
+     */
+    SchedulerCheckpoint newCheckpoint(int[] order, int nextArrival, int completed, int[] remainingTime) {
+        Workload workload = scheduler.workload;
+        GanttChart ganttChart = scheduler.ganttChart;
+        int n = workload.size();
+        SchedulerCheckpoint checkpoint = new SchedulerCheckpoint();
+        checkpoint.algorithm = scheduler.getClass().getSimpleName();
+        checkpoint.parameter = parameter;
+        checkpoint.currentTime = scheduler.currentTime;
+        checkpoint.nextArrival = nextArrival;
+        checkpoint.completed = completed;
+        checkpoint.running = -1;
+        checkpoint.remainingTime = remainingTime;
+
+        checkpoint.lastDispatched = scheduler.lastDispatched;
+        checkpoint.dispatches = scheduler.metrics.getDispatches();
+        checkpoint.contextSwitches = scheduler.metrics.getContextSwitches();
+        checkpoint.lastDispatchedId = scheduler.metrics.getLastDispatched();
+
+        checkpoint.hasPending = scheduler.hasPending;
+        checkpoint.pendingLabel = scheduler.pendingLabel;
+        checkpoint.pendingStart = scheduler.pendingStart;
+        checkpoint.pendingEnd = scheduler.pendingEnd;
+        if (kept != null) {
+            // Kept in memory: writeCheckpoint() stores the unfinished processes, the rest stays in the workload
+            checkpoint.ganttSegments = ganttChart == null ? -1 : ganttChart.size() + (replay != null ? replay.ganttOffset : 0);
+            return checkpoint;
+        }
+
+        checkpoint.workloadHash = workload.contentHash();
+        // A process has completed if it has arrived and has no time left
+        checkpoint.completedFlags = new long[(n + 63) >>> 6];
+        for (int k = 0; k < nextArrival; k++) {
+            if (remainingTime[order[k]] == 0) {
+                checkpoint.setCompleted(order[k]);
+            }
+        }
+        checkpoint.completionTime = workload.completionTime;
+        checkpoint.responseTime = workload.responseTime;
+        if (ganttChart != null) {
+            int segments = ganttChart.size();
+            checkpoint.ganttLabel = new int[segments];
+            checkpoint.ganttStart = new int[segments];
+            checkpoint.ganttEnd = new int[segments];
+            for (int i = 0; i < segments; i++) {
+                checkpoint.ganttLabel[i] = ganttChart.label(i);
+                checkpoint.ganttStart[i] = ganttChart.startTime(i);
+                checkpoint.ganttEnd[i] = ganttChart.endTime(i);
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Writes a checkpoint, or keeps it in memory for IncrementalScheduler. A
+     * failed write is reported and the run goes on; after a few failures in a
+     * row no more checkpoints are written. The ready queue and the running
+     * process of the checkpoint must together hold every process that has
+     * arrived but not completed.
+     *
+     * @param checkpoint Checkpoint from newCheckpoint()
+     */
+    void writeCheckpoint(SchedulerCheckpoint checkpoint) {
+        if (kept != null) {
+            keepCheckpoint(checkpoint);
+            return;
+        }
+        try {
+            checkpoint.write(file);
+            writeFailures = 0;
+        } catch (IOException e) {
+            System.err.println("Error writing checkpoint: " + e.getMessage());
+            if (++writeFailures == MAX_WRITE_FAILURES) {
+                System.err.println("Checkpoints turned off after " + MAX_WRITE_FAILURES + " failed writes in a row");
+                file = null;
+            }
+        }
+        lastWriteNanos = System.nanoTime();
+    }
+
+    /**
+     * Call when the CPU has gone idle and the current time has jumped to the next
+     * arrival, so that every process that arrived so far has completed. A run
+     * with kept checkpoints keeps one here from time to time. A replay ends here
+     * if the previous run was idle at the same point after the edit: the rest of
+     * the previous run's schedule is taken over and the caller leaves its loop.
+     *
+     * @param nextArrival Position in arrival order of the process arriving now
+     * @param counter     Scheduler-specific counter stored in checkpoints
+     * @return -1 to go on, otherwise the counter at the end of the schedule
+     */
+    long idleUntilArrival(int nextArrival, long counter) {
+        if (kept == null) {
+            return -1;
+        }
+        int currentTime = scheduler.currentTime;
+        if (replay != null && replay.candidates != null && currentTime > replay.rejoinAfter) {
+            SchedulerCheckpoint[] candidates = replay.candidates;
+            while (replay.next < candidates.length && candidates[replay.next].currentTime < currentTime) {
+                replay.next++;
+            }
+            for (int c = replay.next; c < candidates.length && candidates[c].currentTime == currentTime; c++) {
+                if (candidates[c].idle && candidates[c].nextArrival == nextArrival) {
+                    return rejoin(c, nextArrival, counter);
+                }
+            }
+        }
+
+        // Idle points are cheap to keep and are where a later replay can rejoin this run
+        if (eventsUntilCheck <= keepEveryEvents - keepEveryEvents / IDLE_CHECKPOINT_FRACTION) {
+            SchedulerCheckpoint checkpoint = newCheckpoint(null, nextArrival, nextArrival, null);
+            checkpoint.readyIndex = new int[0];
+            checkpoint.readyKey = new long[0];
+            checkpoint.counter = counter;
+            checkpoint.idle = true;
+            keepCheckpoint(checkpoint);
+            eventsUntilCheck = keepEveryEvents;
+        }
+        return -1;
+    }
+
+    // Replaces the references to the per-process arrays with the state of the unfinished processes only
+    private void keepCheckpoint(SchedulerCheckpoint checkpoint) {
+        int[] ready = checkpoint.readyIndex;
+        int active = ready.length + (checkpoint.running != -1 ? 1 : 0);
+        if (active != checkpoint.nextArrival - checkpoint.completed) {
+            throw new IllegalStateException("Checkpoint does not hold every unfinished process");
+        }
+        checkpoint.activeIndex = Arrays.copyOf(ready, active);
+        if (checkpoint.running != -1) {
+            checkpoint.activeIndex[active - 1] = checkpoint.running;
+        }
+        checkpoint.activeRemaining = new int[active];
+        checkpoint.activeResponse = new int[active];
+        for (int k = 0; k < active; k++) {
+            int i = checkpoint.activeIndex[k];
+            checkpoint.activeRemaining[k] = checkpoint.remainingTime[i];
+            checkpoint.activeResponse[k] = scheduler.workload.responseTime[i];
+        }
+        checkpoint.remainingTime = null; // Still being changed by the run
+        kept.add(checkpoint);
+    }
+
+    /**
+     * Call at the start of schedule(). If the run is to continue from a
+     * checkpoint, restores the scheduler's results so far, dispatch tracking,
+     * Gantt Chart and current time from it and returns it, so the caller can
+     * restore its loop state. Otherwise returns null and the run starts from the
+     * beginning.
+     *
+     * @return Checkpoint to continue from, or null
+     */
+    SchedulerCheckpoint takeResumeState() {
+        SchedulerCheckpoint checkpoint = resumeState;
+        resumeState = null;
+        if (checkpoint == null) {
+            return null;
+        }
+        if (checkpoint.activeIndex != null) {
+            return resumeKept(checkpoint);
+        }
+        GanttChart ganttChart = scheduler.ganttChart;
+        if (ganttChart != null && checkpoint.ganttLabel == null) {
+            throw new IllegalStateException("Checkpoint has no Gantt Chart; resume without one");
+        }
+
+        Workload workload = scheduler.workload;
+        MetricsAccumulator metrics = scheduler.metrics;
+        int n = workload.size();
+        System.arraycopy(checkpoint.completionTime, 0, workload.completionTime, 0, n);
+        System.arraycopy(checkpoint.responseTime, 0, workload.responseTime, 0, n);
+        for (int i = 0; i < n; i++) {
+            if (checkpoint.isCompleted(i)) {
+                metrics.onComplete(workload.completionTime[i], i, workload.AT[i], workload.BT[i],
+                        (long) workload.AT[i] + workload.responseTime[i]);
+            }
+        }
+        scheduler.lastDispatched = checkpoint.lastDispatched;
+        metrics.addDispatches(checkpoint.dispatches, checkpoint.contextSwitches);
+        metrics.setLastDispatched(checkpoint.lastDispatchedId);
+
+        if (ganttChart != null) {
+            for (int i = 0; i < checkpoint.ganttLabel.length; i++) {
+                ganttChart.accept(checkpoint.ganttLabel[i], checkpoint.ganttStart[i], checkpoint.ganttEnd[i]);
+            }
+        }
+        scheduler.hasPending = checkpoint.hasPending;
+        scheduler.pendingLabel = checkpoint.pendingLabel;
+        scheduler.pendingStart = checkpoint.pendingStart;
+        scheduler.pendingEnd = checkpoint.pendingEnd;
+        scheduler.currentTime = checkpoint.currentTime;
+        return checkpoint;
+    }
+
+    // Restores the state of a compact checkpoint. Processes that completed before it still have their
+    // results in the workload; those that had not arrived start over with their (possibly edited) times.
+    private SchedulerCheckpoint resumeKept(SchedulerCheckpoint kept) {
+        Workload workload = scheduler.workload;
+        MetricsAccumulator metrics = scheduler.metrics;
+        GanttChart ganttChart = scheduler.ganttChart;
+        if (ganttChart != null && kept.ganttSegments < 0) {
+            throw new IllegalStateException("Checkpoint has no Gantt Chart; resume without one");
+        }
+        int n = workload.size();
+        int[] order = workload.arrivalOrder();
+        if (replay != null) {
+            replay.responseTime = workload.responseTime.clone(); // Taken over again if the replay rejoins
+            if (ganttChart != null) {
+                // Segments go into a chart of their own and replace those after the checkpoint at the end
+                replay.ganttBase = replay.previous.ganttChart;
+                replay.ganttOffset = kept.ganttSegments;
+                replay.ganttEnd = replay.ganttBase.size();
+            }
+        }
+        int[] remainingTime = new int[n];
+        for (int k = 0; k < kept.nextArrival; k++) {
+            remainingTime[order[k]] = 0; // Completed, unless it is one of the unfinished processes below
+        }
+        for (int k = kept.nextArrival; k < n; k++) {
+            int i = order[k];
+            remainingTime[i] = workload.BT[i];
+            workload.responseTime[i] = -1;
+        }
+        for (int k = 0; k < kept.activeIndex.length; k++) {
+            int i = kept.activeIndex[k];
+            remainingTime[i] = kept.activeRemaining[k];
+            workload.responseTime[i] = kept.activeResponse[k];
+        }
+        for (int k = 0; k < kept.nextArrival; k++) {
+            int i = order[k];
+            if (remainingTime[i] == 0) {
+                metrics.onComplete(workload.completionTime[i], i, workload.AT[i], workload.BT[i],
+                        (long) workload.AT[i] + workload.responseTime[i]);
+            }
+        }
+        scheduler.lastDispatched = kept.lastDispatched;
+        metrics.addDispatches(kept.dispatches, kept.contextSwitches);
+        metrics.setLastDispatched(kept.lastDispatchedId);
+
+        scheduler.hasPending = kept.hasPending;
+        scheduler.pendingLabel = kept.pendingLabel;
+        scheduler.pendingStart = kept.pendingStart;
+        scheduler.pendingEnd = kept.pendingEnd;
+        scheduler.currentTime = kept.currentTime;
+
+        SchedulerCheckpoint checkpoint = kept.copy();
+        checkpoint.remainingTime = remainingTime;
+        return checkpoint;
+    }
+
+    // Takes over the previous run's schedule from its idle checkpoint candidates[c], which matches the current
+    // state
+    private long rejoin(int c, int nextArrival, long counter) {
+        Workload workload = scheduler.workload;
+        MetricsAccumulator metrics = scheduler.metrics;
+        SchedulerCheckpoint[] candidates = replay.candidates;
+        SchedulerCheckpoint idle = candidates[c];
+        long idleDispatches = idle.dispatches; // Copied, as the checkpoint itself is updated below
+        long idleContextSwitches = idle.contextSwitches;
+        long idleCounter = idle.counter;
+        int idleSegments = idle.ganttSegments;
+        SchedulingAlgorithm previous = replay.previous;
+        replay.rejoinTime = scheduler.currentTime;
+        replay.candidates = null;
+
+        // The processes arriving from now on have the results of the previous run
+        int n = workload.size();
+        int[] order = workload.arrivalOrder();
+        for (int k = nextArrival; k < n; k++) {
+            int i = order[k];
+            workload.responseTime[i] = replay.responseTime[i];
+            metrics.onComplete(workload.completionTime[i], i, workload.AT[i], workload.BT[i],
+                    (long) workload.AT[i] + workload.responseTime[i]);
+        }
+
+        // Dispatches after this point are those of the previous run. The first one is a context switch unless
+        // nothing was dispatched before it, which may differ between the runs.
+        long dispatches = metrics.getDispatches();
+        long contextSwitches = metrics.getContextSwitches();
+        long lastDispatchedId = metrics.getLastDispatched();
+        int crossing = (dispatches > 0 ? 1 : 0) - (idleDispatches > 0 ? 1 : 0);
+        long laterDispatches = previous.metrics.getDispatches() - idleDispatches;
+        metrics.addDispatches(laterDispatches, previous.metrics.getContextSwitches() - idleContextSwitches
+                + (laterDispatches > 0 ? crossing : 0));
+        if (laterDispatches > 0) {
+            metrics.setLastDispatched(previous.metrics.getLastDispatched());
+        }
+        scheduler.lastDispatched = previous.lastDispatched;
+
+        // The previous run's segments after its idle segment follow this run's idle segment
+        int ganttShift = 0;
+        if (replay.ganttBase != null) {
+            scheduler.pendingEnd = replay.ganttBase.endTime(idleSegments); // The idle segment may go on past later idle points
+            replay.ganttEnd = idleSegments + 1;
+            ganttShift = replay.ganttOffset + scheduler.ganttChart.size() - idleSegments;
+        }
+
+        // The previous run's checkpoints from here on still hold, with this run's counts
+        for (int d = c; d < candidates.length; d++) {
+            SchedulerCheckpoint checkpoint = candidates[d];
+            boolean dispatchedSince = checkpoint.dispatches > idleDispatches;
+            if (!dispatchedSince) {
+                checkpoint.lastDispatchedId = lastDispatchedId;
+            }
+            if (checkpoint.ganttSegments == idleSegments && checkpoint.pendingLabel == GanttSink.IDLE) {
+                checkpoint.pendingStart = scheduler.pendingStart; // Same idle segment, which started earlier or later here
+            }
+            checkpoint.dispatches += dispatches - idleDispatches;
+            checkpoint.contextSwitches += contextSwitches - idleContextSwitches + (dispatchedSince ? crossing : 0);
+            checkpoint.counter += counter - idleCounter;
+            if (checkpoint.ganttSegments >= 0) {
+                checkpoint.ganttSegments += ganttShift;
+            }
+            kept.add(checkpoint);
+        }
+
+        scheduler.currentTime = previous.currentTime;
+        return counter + previous.resultCounter() - idleCounter;
+    }
+
+    // State of a replay of an edited workload that can rejoin the previous run
+    private static final class Replay {
+        final SchedulingAlgorithm previous; // Finished scheduler of the previous run
+        SchedulerCheckpoint[] candidates; // Checkpoints of the previous run after the replay's start, or null
+        int next; // First candidate not before the current time
+        final int rejoinAfter; // Time after which the runs can rejoin
+        int rejoinTime = -1; // Time the replay rejoined the previous run, or -1
+        int[] responseTime; // Response Times of the previous run
+        GanttChart ganttBase; // Previous run's Gantt Chart, until the replayed segments are put into it
+        int ganttOffset; // Segments of ganttBase before the replay's start
+        int ganttEnd; // End of the segments of ganttBase the replayed segments replace
+
+        Replay(SchedulingAlgorithm previous, SchedulerCheckpoint[] candidates, int rejoinAfter) {
+            this.previous = previous;
+            this.candidates = candidates;
+            this.rejoinAfter = rejoinAfter;
+        }
+    }
+}
@@ -1,41 +1,54 @@
 package Finals_OS;
 
-import java.util.*;
-
 public class FCFSClass extends SchedulingAlgorithm {
 
     public FCFSClass(Process[] processes) {
         super(processes); // Initialize the base class with the list of processes
     }
 
+    public FCFSClass(Workload workload) {
+        super(workload); // Initialize the base class with the workload
+    }
+
     @Override
     public void schedule() {
         try {
-            // Sort processes by arrival time (AT) in ascending order
-            Arrays.sort(processes, Comparator.comparingInt(p -> p.AT));
+            // Order processes by arrival time (AT) in ascending order, without reordering the input
+            int[] order = workload.arrivalOrder();
 
             // Check for initial idle time before the first process arrives
-            if (processes[0].AT > 0) {
-                addIdleTimeToGanttChart(0, processes[0].AT); // Add idle time to Gantt Chart
+            if (workload.AT[order[0]] > 0) {
+                addIdleTimeToGanttChart(0, workload.AT[order[0]]); // Add idle time to Gantt Chart
             }
 
-            currentTime = processes[0].AT; // Set the current time to the arrival time of the first process
+            currentTime = workload.AT[order[0]]; // Set the current time to the arrival time of the first process
+            int arrived = 0; // Number of processes that have arrived by the current time
+            int started = 0; // Number of processes that have started running
 
-            for (Process p : processes) {
+            for (int i : order) {
                 // If the CPU is idle (currentTime < process arrival time), add idle time
-                if (currentTime < p.AT) {
-                    addIdleTimeToGanttChart(currentTime, p.AT); // Handle idle time between processes
-                    currentTime = p.AT; // Update the current time to the process's arrival time
+                if (currentTime < workload.AT[i]) {
+                    addIdleTimeToGanttChart(currentTime, workload.AT[i]); // Handle idle time between processes
+                    currentTime = workload.AT[i]; // Update the current time to the process's arrival time
+                }
+
+                // The processes that have arrived but not started form the ready queue
+                while (arrived < order.length && workload.AT[order[arrived]] <= currentTime) {
+                    arrived++;
                 }
+                long selection = startSelection(arrived - started);
+                started++;
+                endSelection(selection);
 
                 // Add process execution to the Gantt Chart
-                addToGanttChart(p.pid, currentTime, currentTime + p.BT);
+                recordDispatch(i, currentTime);
+                addToGanttChart(i, currentTime, currentTime + workload.BT[i]);
 
                 // Update current time and process metrics
-                currentTime += p.BT; // Advance the current time by the burst time (BT)
-                p.completionTime = currentTime; // Set the completion time
-                p.turnAroundTime = p.completionTime - p.AT; // Calculate Turnaround Time (TAT)
-                p.waitingTime = p.turnAroundTime - p.BT; // Calculate Waiting Time (WT)
+                currentTime += workload.BT[i]; // Advance the current time by the burst time (BT)
+                recordCompletion(i, currentTime); // Set the completion time
+                workload.turnAroundTime[i] = workload.completionTime[i] - workload.AT[i]; // Calculate Turnaround Time (TAT)
+                workload.waitingTime[i] = workload.turnAroundTime[i] - workload.BT[i]; // Calculate Waiting Time (WT)
             }
 
             calculateMetrics(); // Calculate average metrics (TAT, WT, CPU Utilization)
@@ -0,0 +1,50 @@
+package Finals_OS;
+
+/**
+ * Fenwick (binary indexed) tree of non-negative long weights, one per process
+ * index. Changing a weight and finding the process that owns a given point of
+ * the cumulative weight both cost O(log n), so a lottery draw among a million
+ * processes takes about 20 steps.
+ */
+class FenwickTree {
+    private final long[] tree; // tree[i] holds the sum of the weights of indices (i - (i & -i)) to i - 1
+    private final int highestStep; // Largest power of two not above the number of indices
+    private long total; // Sum of all weights
+
+    /**
+     * Creates a tree whose weights are all 0.
+     *
+     * @param size Number of indices
+     */
+    FenwickTree(int size) {
+        this.tree = new long[size + 1];
+        this.highestStep = size == 0 ? 0 : Integer.highestOneBit(size);
+    }
+
+    // Sum of all weights
+    long total() {
+        return total;
+    }
+
+    // Adds delta to the weight of an index
+    void add(int index, long delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+        total += delta;
+    }
+
+    // Index whose weight covers the point, counting the weights in index order: the smallest
+    // index whose cumulative weight exceeds point (0 <= point < total())
+    int find(long point) {
+        int position = 0; // Indices below position have a cumulative weight of at most point
+        for (int step = highestStep; step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] <= point) {
+                position = next;
+                point -= tree[next];
+            }
+        }
+        return position;
+    }
+}
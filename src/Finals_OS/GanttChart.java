@@ -1,14 +1,94 @@
 package Finals_OS;
 
-// Inner class to represent Gantt chart entries
-public class GanttChart {
-    String label;
-    int startTime;
-    int endTime;
-
-    public GanttChart(String label, int startTime, int endTime) {
-        this.label = label;
-        this.startTime = startTime;
-        this.endTime = endTime;
-    }
-}
\ No newline at end of file
+import java.util.*;
+
+/**
+ * In-memory Gantt Chart stored as parallel primitive arrays, one entry per
+ * segment. This is the default sink of every scheduling algorithm.
+ */
+public class GanttChart implements GanttSink {
+    private int[] label; // Process index of each segment, or IDLE
+    private int[] startTime; // Start time of each segment
+    private int[] endTime; // End time of each segment
+    private int size; // Number of segments
+
+    public GanttChart() {
+        this.label = new int[16];
+        this.startTime = new int[16];
+        this.endTime = new int[16];
+        this.size = 0;
+    }
+
+    @Override
+    public void accept(int label, int startTime, int endTime) {
+        if (size == this.label.length) {
+            ensureCapacity(size + 1);
+        }
+        this.label[size] = label;
+        this.startTime[size] = startTime;
+        this.endTime[size] = endTime;
+        size++;
+    }
+
+    // Replaces segments from to to - 1 with every segment of another chart
+    void splice(int from, int to, GanttChart replacement) {
+        int count = replacement.size;
+        int newSize = size - (to - from) + count;
+        ensureCapacity(newSize);
+        System.arraycopy(label, to, label, from + count, size - to);
+        System.arraycopy(startTime, to, startTime, from + count, size - to);
+        System.arraycopy(endTime, to, endTime, from + count, size - to);
+        System.arraycopy(replacement.label, 0, label, from, count);
+        System.arraycopy(replacement.startTime, 0, startTime, from, count);
+        System.arraycopy(replacement.endTime, 0, endTime, from, count);
+        size = newSize;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > label.length) {
+            int length = Math.max(capacity, label.length * 2);
+            label = Arrays.copyOf(label, length);
+            startTime = Arrays.copyOf(startTime, length);
+            endTime = Arrays.copyOf(endTime, length);
+        }
+    }
+
+    /**
+     * Returns the number of segments.
+     *
+     * @return Number of segments
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the process index of a segment.
+     *
+     * @param segment Index of the segment
+     * @return Process index, or IDLE for idle time
+     */
+    public int label(int segment) {
+        return label[segment];
+    }
+
+    /**
+     * Returns the start time of a segment.
+     *
+     * @param segment Index of the segment
+     * @return Start time
+     */
+    public int startTime(int segment) {
+        return startTime[segment];
+    }
+
+    /**
+     * Returns the end time of a segment.
+     *
+     * @param segment Index of the segment
+     * @return End time
+     */
+    public int endTime(int segment) {
+        return endTime[segment];
+    }
+}
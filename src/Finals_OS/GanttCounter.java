@@ -0,0 +1,32 @@
+package Finals_OS;
+
+/**
+ * Gantt sink that only counts segments and totals busy and idle time.
+ */
+public class GanttCounter implements GanttSink {
+    private long segments; // Number of segments received
+    private long busyTime; // Total time spent running processes
+    private long idleTime; // Total idle time
+
+    @Override
+    public void accept(int label, int startTime, int endTime) {
+        segments++;
+        if (label == IDLE) {
+            idleTime += endTime - startTime;
+        } else {
+            busyTime += endTime - startTime;
+        }
+    }
+
+    public long getSegments() {
+        return segments;
+    }
+
+    public long getBusyTime() {
+        return busyTime;
+    }
+
+    public long getIdleTime() {
+        return idleTime;
+    }
+}
@@ -0,0 +1,54 @@
+package Finals_OS;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Gantt sink that streams segments to a text file, one "label,start,end" line
+ * per segment, instead of keeping them in memory.
+ */
+public class GanttFileSink implements GanttSink, Closeable {
+    private final Workload workload; // Used to turn process indices into process IDs
+    private final Writer writer; // Buffered output file
+
+    /**
+     * Opens (or replaces) the output file.
+     *
+     * @param file     File to write
+     * @param workload Workload being scheduled
+     * @throws IOException If the file cannot be opened
+     */
+    public GanttFileSink(Path file, Workload workload) throws IOException {
+        this.workload = workload;
+        this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void accept(int label, int startTime, int endTime) {
+        try {
+            writer.write(label == IDLE ? "////" : workload.pid(label));
+            writer.write(',');
+            writer.write(Integer.toString(startTime));
+            writer.write(',');
+            writer.write(Integer.toString(endTime));
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void finish() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
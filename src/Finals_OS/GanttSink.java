@@ -0,0 +1,28 @@
+package Finals_OS;
+
+/**
+ * Receives Gantt Chart segments as a scheduler produces them. Adjacent segments
+ * of the same process are merged before they reach the sink.
+ */
+public interface GanttSink {
+    int IDLE = -1; // Label of idle segments
+
+    /** Sink that discards every segment, for metrics-only runs. */
+    GanttSink NONE = (label, startTime, endTime) -> {
+    };
+
+    /**
+     * Accepts one segment.
+     *
+     * @param label     Index of the process, or IDLE for idle time
+     * @param startTime Start time of the segment
+     * @param endTime   End time of the segment
+     */
+    void accept(int label, int startTime, int endTime);
+
+    /**
+     * Called once after the last segment of a scheduling run.
+     */
+    default void finish() {
+    }
+}
@@ -0,0 +1,190 @@
+package Finals_OS;
+
+import java.util.*;
+
+/**
+ * What-if scheduling of one workload under repeated edits. After an edit to a
+ * process's arrival or burst time, the schedule is only replayed from the
+ * earliest point the edit can affect, instead of from time 0.
+ *
+ * Every run keeps compact checkpoints in memory at regular intervals of its
+ * event loop. Nothing before the edited process arrives depends on it, so the
+ * replay resumes from the last checkpoint taken before both its old and its
+ * new arrival time. The results, metrics and Gantt Chart before that point are
+ * reused as they are, and the checkpoints after it are replaced by those of
+ * the replay. Algorithms without checkpoint support are scheduled again from
+ * the start, which still skips sorting the workload by arrival time.
+ *
+ * The scheduler works on its own copy of the input columns, so the workload
+ * passed in is never changed.
+ */
+public class IncrementalScheduler {
+    private static final int CHECKPOINTS_PER_RUN = 64; // Checkpoints kept over a full run
+    private static final int MIN_CHECKPOINT_EVENTS = 1024; // Fewest loop iterations between two checkpoints
+
+    private final Workload workload; // Own copy of the inputs, edited in place
+    private final Algorithm algorithm; // Algorithm every run uses
+    private final int timeQuantum; // Time quantum, for the algorithms that use one
+    private final boolean recordGantt; // True to keep the Gantt Chart of the runs
+    private final List<SchedulerCheckpoint> checkpoints = new ArrayList<>(); // Checkpoints of the current schedule
+    private SchedulingAlgorithm scheduler; // Scheduler holding the results of the last run
+    private int replayStart; // Time the last run started from
+
+    /**
+     * Creates an incremental scheduler. Call schedule() for the first run.
+     *
+     * @param workload    Workload to schedule; it is copied and never changed
+     * @param algorithm   Algorithm to schedule with
+     * @param timeQuantum Time quantum, for the algorithms that use one
+     * @param recordGantt True to keep the Gantt Chart of the runs
+     */
+    public IncrementalScheduler(Workload workload, Algorithm algorithm, int timeQuantum, boolean recordGantt) {
+        if (algorithm.usesTimeQuantum() && timeQuantum <= 0) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " needs a positive time quantum");
+        }
+        if (workload.size() == 0) {
+            throw new IllegalArgumentException("Workload has no processes");
+        }
+        this.workload = workload.editableCopy();
+        this.algorithm = algorithm;
+        this.timeQuantum = timeQuantum;
+        this.recordGantt = recordGantt;
+    }
+
+    /**
+     * Schedules the whole workload from time 0.
+     *
+     * @return Finished scheduler holding the results
+     */
+    public SchedulingAlgorithm schedule() {
+        checkpoints.clear();
+        Arrays.fill(workload.responseTime, -1); // Results of an earlier run are not reused
+        scheduler = newScheduler();
+        replayStart = 0;
+        scheduler.schedule();
+        return scheduler;
+    }
+
+    /**
+     * Changes the arrival and burst time of one process and brings the schedule
+     * up to date, replaying it from the last checkpoint the edit does not
+     * affect.
+     *
+     * @param index       Index of the process
+     * @param arrivalTime New arrival time
+     * @param burstTime   New burst time
+     * @return Finished scheduler holding the new results
+     */
+    public SchedulingAlgorithm setProcessTimes(int index, int arrivalTime, int burstTime) {
+        if (index < 0 || index >= workload.size()) {
+            throw new IllegalArgumentException("No process with index " + index);
+        }
+        if (arrivalTime < 0 || burstTime < 0) {
+            throw new IllegalArgumentException("Arrival and burst times must not be negative");
+        }
+        if (scheduler == null) {
+            workload.setTimes(index, arrivalTime, burstTime);
+            return schedule();
+        }
+        if (arrivalTime == workload.AT[index] && burstTime == workload.BT[index]) {
+            return scheduler; // Nothing changed
+        }
+
+        // The last checkpoint taken before the process arrives, in the old schedule and in the new one
+        int affectedFrom = Math.min(workload.AT[index], arrivalTime);
+        int rejoinAfter = Math.max(workload.AT[index], arrivalTime);
+        int last = checkpoints.size() - 1;
+        while (last >= 0 && checkpoints.get(last).currentTime >= affectedFrom) {
+            last--;
+        }
+        workload.setTimes(index, arrivalTime, burstTime);
+        if (last < 0) {
+            return schedule();
+        }
+
+        // The checkpoints after it are replaced by those of the replay, or taken over where it rejoins
+        SchedulerCheckpoint checkpoint = checkpoints.get(last);
+        List<SchedulerCheckpoint> later = checkpoints.subList(last + 1, checkpoints.size());
+        SchedulerCheckpoint[] candidates = later.toArray(new SchedulerCheckpoint[0]);
+        later.clear();
+        SchedulingAlgorithm previous = scheduler;
+        scheduler = newScheduler();
+        CheckpointSupport replay = scheduler.checkpointSupport();
+        replay.replayFrom(checkpoint, previous, candidates, rejoinAfter);
+        replayStart = checkpoint.currentTime;
+        scheduler.schedule();
+        replay.finishReplay();
+        return scheduler;
+    }
+
+    /**
+     * Returns the scheduler holding the results of the last run.
+     *
+     * @return Finished scheduler, or null before the first run
+     */
+    public SchedulingAlgorithm getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the workload as edited so far.
+     *
+     * @return Edited workload; do not change it
+     */
+    public Workload getWorkload() {
+        return workload;
+    }
+
+    /**
+     * Returns the time the last run was replayed from: 0 for a full run.
+     *
+     * @return Start time of the last run
+     */
+    public int getReplayStart() {
+        return replayStart;
+    }
+
+    /**
+     * Returns the time at which the last run rejoined the schedule before the
+     * edit, after which nothing changed.
+     *
+     * @return Rejoin time, or -1 if the last run went on to the end
+     */
+    public int getRejoinTime() {
+        CheckpointSupport support = scheduler != null ? scheduler.checkpointSupport() : null;
+        return support != null ? support.getRejoinTime() : -1;
+    }
+
+    /**
+     * Returns the number of checkpoints kept for the current schedule.
+     *
+     * @return Number of checkpoints
+     */
+    public int getCheckpointCount() {
+        return checkpoints.size();
+    }
+
+    // Creates the scheduler for the next run
+    private SchedulingAlgorithm newScheduler() {
+        SchedulingAlgorithm next = algorithm.create(workload, timeQuantum);
+        if (!recordGantt) {
+            next.setGanttSink(GanttSink.NONE);
+        }
+        if (next.checkpointSupport() != null) {
+            next.checkpointSupport().keep(checkpoints, checkpointInterval());
+        }
+        return next;
+    }
+
+    // Loop iterations between checkpoints, spreading about CHECKPOINTS_PER_RUN over a full run
+    private int checkpointInterval() {
+        long events = 2L * workload.size(); // An arrival and a completion for each process
+        if (algorithm.usesTimeQuantum()) {
+            events = workload.size();
+            for (int i = 0; i < workload.size(); i++) {
+                events += (workload.BT[i] + (long) timeQuantum - 1) / timeQuantum; // One iteration per time slice
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(MIN_CHECKPOINT_EVENTS, events / CHECKPOINTS_PER_RUN));
+    }
+}
@@ -0,0 +1,73 @@
+package Finals_OS;
+
+/**
+ * FIFO queue of process indices backed by a primitive ring buffer, so queue
+ * operations never box. The buffer only allocates when it has to grow.
+ */
+class IntRingQueue {
+    private int[] elements; // Ring buffer storage
+    private int head; // Position of the first element
+    private int size; // Number of queued elements
+
+    /**
+     * Creates an empty queue.
+     *
+     * @param capacity Initial capacity (the buffer doubles when it is exceeded)
+     */
+    IntRingQueue(int capacity) {
+        this.elements = new int[Math.max(1, capacity)];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Adds an element to the tail of the queue
+    void offer(int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        int tail = head + size;
+        if (tail >= elements.length) {
+            tail -= elements.length;
+        }
+        elements[tail] = value;
+        size++;
+    }
+
+    // Removes and returns the element at the head of the queue
+    int poll() {
+        int value = elements[head];
+        head++;
+        if (head == elements.length) {
+            head = 0;
+        }
+        size--;
+        return value;
+    }
+
+    // Queued elements from head to tail, for checkpoints
+    int[] toArray() {
+        int[] values = new int[size];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, values, 0, firstPart);
+        System.arraycopy(elements, 0, values, firstPart, size - firstPart);
+        return values;
+    }
+
+    // Doubles the buffer and moves the elements to the front
+    private void grow() {
+        int[] larger = new int[elements.length * 2];
+        int firstPart = Math.min(size, elements.length - head);
+        System.arraycopy(elements, head, larger, 0, firstPart);
+        System.arraycopy(elements, 0, larger, firstPart, size - firstPart);
+        elements = larger;
+        head = 0;
+    }
+}
@@ -0,0 +1,147 @@
+package Finals_OS;
+
+/**
+ * Fixed-size histogram of non-negative values with log-linear buckets. Values
+ * below 128 are counted exactly. Larger values fall into one of 64 buckets per
+ * power of two, so reported percentiles are within about 1.6% of the true
+ * value. Memory use does not depend on how many values are recorded. The
+ * buckets (about 30 KB) are allocated by the first value recorded, and a
+ * histogram whose percentiles are not needed can skip them altogether.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6; // 64 buckets per power of two
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int EXACT_LIMIT = 2 * SUB_BUCKETS; // Values below this have their own bucket
+    private static final int BUCKETS = EXACT_LIMIT + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private long[] counts; // Number of values in each bucket, or null until a value is recorded
+    private boolean tracksPercentiles = true; // False to keep only the count, sum and maximum
+    private long count; // Number of recorded values
+    private long sum; // Sum of recorded values
+    private long max; // Largest recorded value
+
+    /**
+     * Records one value. Negative values are recorded as 0.
+     *
+     * @param value Value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        if (tracksPercentiles) {
+            if (counts == null) {
+                counts = new long[BUCKETS];
+            }
+            counts[bucketOf(value)]++;
+        }
+        count++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Turns bucket counting on or off. Without it, only the count, mean and
+     * maximum are kept. Call it before recording any value.
+     *
+     * @param enabled False to skip the buckets
+     */
+    public void setTracksPercentiles(boolean enabled) {
+        if (count > 0) {
+            throw new IllegalStateException("Values have already been recorded");
+        }
+        tracksPercentiles = enabled;
+    }
+
+    public boolean tracksPercentiles() {
+        return tracksPercentiles;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values.
+     *
+     * @return Mean, or 0 if nothing was recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the value at the given percentile: the upper end of the bucket that
+     * holds it, capped at the largest recorded value.
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Value at the percentile, or 0 if nothing was recorded
+     * @throws IllegalStateException If percentiles are not tracked
+     */
+    public long getPercentile(double percentile) {
+        if (!tracksPercentiles) {
+            throw new IllegalStateException("Percentiles are not tracked by this histogram");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        rank = Math.max(1, Math.min(count, rank));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) {
+                return Math.min(max, highestValueIn(bucket));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Adds all values recorded in another histogram to this one.
+     *
+     * @param other Histogram to merge
+     */
+    public void add(LatencyHistogram other) {
+        if (tracksPercentiles && other.count > 0) {
+            if (!other.tracksPercentiles) {
+                throw new IllegalArgumentException("Cannot merge a histogram without percentiles into one with them");
+            }
+            if (counts == null) {
+                counts = new long[BUCKETS];
+            }
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                counts[bucket] += other.counts[bucket];
+            }
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    // Bucket holding a non-negative value
+    private static int bucketOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS; // At least 1 here
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS; // 0 to SUB_BUCKETS - 1
+        return EXACT_LIMIT + (shift - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    // Largest value that falls into a bucket
+    private static long highestValueIn(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+        int shift = (bucket - EXACT_LIMIT) / SUB_BUCKETS + 1;
+        long subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
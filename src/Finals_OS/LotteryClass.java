@@ -0,0 +1,70 @@
+package Finals_OS;
+
+import java.util.*;
+
+/**
+ * Lottery scheduling. Each time quantum goes to the winner of a draw among the
+ * tickets of the runnable processes, so a process's expected share of the CPU
+ * is proportional to its tickets. The process that just ran takes part in the
+ * draw again.
+ *
+ * The tickets are kept in a Fenwick tree indexed by process, so a draw, an
+ * arrival and a completion each cost O(log n) even with a million runnable
+ * processes. Draws come from a seeded generator, so a run with the same seed
+ * is always the same.
+ */
+public class LotteryClass extends ProportionalShareScheduler {
+    public static final long DEFAULT_SEED = 1; // Seed used when none is given
+
+    private final long seed; // Seed of the draws
+    private FenwickTree tickets; // Tickets of each runnable process, 0 for the others
+    private SplittableRandom random; // Source of the draws
+
+    public LotteryClass(Process[] processes, int timeQuantum) {
+        this(processes, timeQuantum, DEFAULT_SEED);
+    }
+
+    public LotteryClass(Workload workload, int timeQuantum) {
+        this(workload, timeQuantum, DEFAULT_SEED);
+    }
+
+    /**
+     * Creates a lottery scheduler.
+     *
+     * @param processes   Array of processes to schedule
+     * @param timeQuantum Time each draw is for
+     * @param seed        Seed of the draws
+     */
+    public LotteryClass(Process[] processes, int timeQuantum, long seed) {
+        super(processes, timeQuantum);
+        this.seed = seed;
+    }
+
+    public LotteryClass(Workload workload, int timeQuantum, long seed) {
+        super(workload, timeQuantum);
+        this.seed = seed;
+    }
+
+    @Override
+    protected void startRun(int processes) {
+        tickets = new FenwickTree(processes);
+        random = new SplittableRandom(seed); // Every run draws the same sequence
+    }
+
+    @Override
+    protected void onArrival(int process) {
+        tickets.add(process, ticketsOf(process));
+    }
+
+    @Override
+    protected int pickNext() {
+        return tickets.find(random.nextLong(tickets.total())); // The winning ticket's holder
+    }
+
+    @Override
+    protected void onTurnEnd(int process, int used, boolean completed) {
+        if (completed) {
+            tickets.add(process, -ticketsOf(process));
+        }
+    }
+}
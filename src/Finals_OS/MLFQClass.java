@@ -0,0 +1,250 @@
+package Finals_OS;
+
+import java.util.*;
+
+/**
+ * Multi-Level Feedback Queue scheduling. Level 0 has the highest priority and
+ * each level has its own time quantum.
+ *
+ * - New processes enter level 0.
+ * - The first process of the highest non-empty level runs.
+ * - A process that uses up its level's quantum moves down one level. Time used
+ *   before being preempted counts towards the quantum, so a process cannot stay
+ *   at a level by giving up the CPU just before the quantum expires.
+ * - An arrival preempts a process running below level 0. The preempted process
+ *   goes to the back of its level.
+ * - Every boost interval, all processes move back to level 0, the running one
+ *   included, so long jobs are not starved.
+ *
+ * The non-empty levels are kept in a bitmap, so finding the highest one is a
+ * single instruction whatever the number of levels or processes. Levels are
+ * linked lists, so a boost joins them instead of moving each process.
+ */
+public class MLFQClass extends SchedulingAlgorithm {
+    public static final int MAX_LEVELS = 64; // One bit per level in a long
+    private static final int DEFAULT_LEVELS = 3; // Levels used when only a base quantum is given
+    private static final int DEFAULT_BOOST_QUANTA = 32; // Default boost interval, in base quanta
+
+    private final int[] timeQuantum; // Time quantum of each level
+    private final int boostInterval; // Time between priority boosts, or 0 for no boosts
+    private int[] next; // Next process in the same level's queue, or -1
+    private int[] head; // First process of each level, or -1 if the level is empty
+    private int[] tail; // Last process of each level (valid while the level is not empty)
+
+    /**
+     * Creates an MLFQ scheduler with three levels whose quanta double at each
+     * level, boosting every 32 base quanta.
+     *
+     * @param processes   Array of processes to schedule
+     * @param baseQuantum Time quantum of the top level
+     */
+    public MLFQClass(Process[] processes, int baseQuantum) {
+        this(processes, defaultQuanta(baseQuantum), defaultBoostInterval(baseQuantum));
+    }
+
+    public MLFQClass(Workload workload, int baseQuantum) {
+        this(workload, defaultQuanta(baseQuantum), defaultBoostInterval(baseQuantum));
+    }
+
+    /**
+     * Creates an MLFQ scheduler with the given levels.
+     *
+     * @param processes     Array of processes to schedule
+     * @param timeQuantum   Time quantum of each level, from the highest priority down
+     * @param boostInterval Time between priority boosts, or 0 for no boosts
+     */
+    public MLFQClass(Process[] processes, int[] timeQuantum, int boostInterval) {
+        super(processes);
+        this.timeQuantum = checkQuanta(timeQuantum);
+        this.boostInterval = checkBoostInterval(boostInterval);
+    }
+
+    public MLFQClass(Workload workload, int[] timeQuantum, int boostInterval) {
+        super(workload);
+        this.timeQuantum = checkQuanta(timeQuantum);
+        this.boostInterval = checkBoostInterval(boostInterval);
+    }
+
+    @Override
+    public void schedule() {
+        try {
+            int n = workload.size();
+            int levels = timeQuantum.length;
+            int[] remainingTime = workload.BT.clone(); // Remaining burst time of each process
+            int[] level = new int[n]; // Level of each process when it last ran
+            int[] used = new int[n]; // Time used at the current level, towards its quantum
+            int[] usedEpoch = new int[n]; // Boost count when used was last set; older values count as 0
+            int boosts = 0; // Number of boosts so far
+
+            // Ready queues as linked lists through next, so a boost can join whole levels
+            next = new int[n];
+            head = new int[levels];
+            tail = new int[levels];
+            Arrays.fill(head, -1);
+            long nonEmpty = 0; // Bit l is set if level l has waiting processes
+            int waiting = 0; // Number of waiting processes on all levels
+
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            int preempted = -1; // Process to re-queue after its run ended without completing
+            int completed = 0; // Number of completed processes
+            currentTime = workload.AT[order[0]]; // Start time is the earliest arrival time
+            long nextBoost = boostInterval > 0 ? boostInterval : Long.MAX_VALUE; // Time of the next boost
+
+            // Check for initial idle time before the first process arrives
+            if (currentTime > 0) {
+                addIdleTimeToGanttChart(0, currentTime);
+            }
+
+            while (completed < n) {
+                // New processes enter the top level
+                while (nextArrival < n && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
+                        offer(0, i);
+                        nonEmpty |= 1L;
+                        waiting++;
+                    } else {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
+                    }
+                }
+
+                // The process whose run just ended goes behind the processes that arrived meanwhile
+                if (preempted != -1) {
+                    offer(level[preempted], preempted);
+                    nonEmpty |= 1L << level[preempted];
+                    waiting++;
+                    preempted = -1;
+                }
+
+                // Priority boost: append every lower level to the top level, keeping their
+                // order. Quanta are reset lazily through the boost count, so a boost costs
+                // O(levels) however many processes are waiting.
+                if (currentTime >= nextBoost) {
+                    for (long rest = nonEmpty & ~1L; rest != 0; rest &= rest - 1) {
+                        int l = Long.numberOfTrailingZeros(rest);
+                        if (head[0] == -1) {
+                            head[0] = head[l];
+                        } else {
+                            next[tail[0]] = head[l];
+                        }
+                        tail[0] = tail[l];
+                        head[l] = -1;
+                    }
+                    nonEmpty = nonEmpty != 0 ? 1L : 0;
+                    boosts++;
+                    nextBoost = (long) (currentTime / boostInterval + 1) * boostInterval;
+                }
+
+                if (nonEmpty == 0) {
+                    if (completed == n) {
+                        break; // The last arrivals had zero-length bursts
+                    }
+                    // If no process is ready, move time forward to the next arrival time
+                    int nextArrivalTime = workload.AT[order[nextArrival]];
+                    addIdleTimeToGanttChart(currentTime, nextArrivalTime);
+                    currentTime = nextArrivalTime;
+                    continue;
+                }
+
+                // Take the first process of the highest non-empty level
+                long selection = startSelection(waiting);
+                int l = Long.numberOfTrailingZeros(nonEmpty);
+                int p = poll(l);
+                if (head[l] == -1) {
+                    nonEmpty &= ~(1L << l);
+                }
+                waiting--;
+                endSelection(selection);
+                level[p] = l;
+                if (usedEpoch[p] != boosts) {
+                    used[p] = 0; // Boosted since it last ran: a fresh quantum
+                    usedEpoch[p] = boosts;
+                }
+                recordDispatch(p, currentTime);
+
+                // Run until the process completes, its quantum expires, a boost is due, or
+                // (below the top level) the next process arrives
+                long runUntil = Math.min((long) currentTime + remainingTime[p],
+                        (long) currentTime + timeQuantum[l] - used[p]);
+                runUntil = Math.min(runUntil, nextBoost);
+                if (l > 0 && nextArrival < n) {
+                    runUntil = Math.min(runUntil, workload.AT[order[nextArrival]]);
+                }
+                int executionTime = (int) (runUntil - currentTime);
+                addToGanttChart(p, currentTime, (int) runUntil);
+                currentTime = (int) runUntil;
+                remainingTime[p] -= executionTime;
+                used[p] += executionTime;
+
+                if (remainingTime[p] == 0) {
+                    recordCompletion(p, currentTime); // Set completion time
+                    completed++;
+                } else {
+                    if (used[p] == timeQuantum[l]) {
+                        // Quantum used up: move down a level with a fresh quantum
+                        level[p] = Math.min(l + 1, levels - 1);
+                        used[p] = 0;
+                    }
+                    preempted = p;
+                }
+            }
+
+            calculateMetrics(); // Calculate the average metrics and CPU utilization
+        } catch (Exception e) {
+            System.err.println("Error during MLFQ scheduling: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // Appends a process to the back of a level
+    private void offer(int l, int p) {
+        next[p] = -1;
+        if (head[l] == -1) {
+            head[l] = p;
+        } else {
+            next[tail[l]] = p;
+        }
+        tail[l] = p;
+    }
+
+    // Removes the first process of a non-empty level
+    private int poll(int l) {
+        int p = head[l];
+        head[l] = next[p];
+        return p;
+    }
+
+    // Quanta of the default levels: the base quantum, doubled at each level
+    private static int[] defaultQuanta(int baseQuantum) {
+        int[] quanta = new int[DEFAULT_LEVELS];
+        for (int l = 0; l < DEFAULT_LEVELS; l++) {
+            quanta[l] = baseQuantum << l;
+        }
+        return quanta;
+    }
+
+    private static int defaultBoostInterval(int baseQuantum) {
+        return baseQuantum * DEFAULT_BOOST_QUANTA;
+    }
+
+    private static int[] checkQuanta(int[] timeQuantum) {
+        if (timeQuantum.length == 0 || timeQuantum.length > MAX_LEVELS) {
+            throw new IllegalArgumentException("MLFQ needs between 1 and " + MAX_LEVELS + " levels");
+        }
+        for (int quantum : timeQuantum) {
+            if (quantum <= 0) {
+                throw new IllegalArgumentException("Every MLFQ level needs a positive time quantum");
+            }
+        }
+        return timeQuantum.clone();
+    }
+
+    private static int checkBoostInterval(int boostInterval) {
+        if (boostInterval < 0) {
+            throw new IllegalArgumentException("Boost interval must not be negative");
+        }
+        return boostInterval;
+    }
+}
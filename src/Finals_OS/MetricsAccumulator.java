@@ -0,0 +1,162 @@
+package Finals_OS;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Online scheduling metrics, updated as each process completes. Response,
+ * waiting and turnaround times go into fixed-size histograms, so the memory
+ * used does not grow with the number of processes.
+ *
+ * It can listen to an OnlineScheduler directly, and every SchedulingAlgorithm
+ * feeds one while it schedules.
+ */
+public class MetricsAccumulator implements ScheduleListener {
+    private final LatencyHistogram responseTime = new LatencyHistogram(); // First dispatch - AT
+    private final LatencyHistogram waitingTime = new LatencyHistogram(); // TAT - BT
+    private final LatencyHistogram turnAroundTime = new LatencyHistogram(); // CT - AT
+    private long dispatches; // Number of times a process was given the CPU
+    private long contextSwitches; // Dispatches of a different process than the one before
+    private long[] lastDispatched = { Long.MIN_VALUE }; // ID of the last process dispatched on each core
+    private long firstArrival = Long.MAX_VALUE; // Earliest arrival among completed processes
+    private long lastCompletion = Long.MIN_VALUE; // Latest completion time
+
+    @Override
+    public void onDispatch(long time, long processId) {
+        onDispatch(time, processId, 0);
+    }
+
+    /**
+     * Records a dispatch on one core of a multi-core system. Context switches are
+     * counted per core.
+     *
+     * @param time      Dispatch time
+     * @param processId ID of the dispatched process
+     * @param core      Core the process was dispatched on
+     */
+    public void onDispatch(long time, long processId, int core) {
+        if (core >= lastDispatched.length) {
+            int length = lastDispatched.length;
+            lastDispatched = Arrays.copyOf(lastDispatched, Math.max(core + 1, length * 2));
+            Arrays.fill(lastDispatched, length, lastDispatched.length, Long.MIN_VALUE);
+        }
+        dispatches++;
+        if (lastDispatched[core] != Long.MIN_VALUE && lastDispatched[core] != processId) {
+            contextSwitches++;
+        }
+        lastDispatched[core] = processId;
+    }
+
+    // ID of the last process dispatched on the first core, or Long.MIN_VALUE; for checkpoints
+    long getLastDispatched() {
+        return lastDispatched[0];
+    }
+
+    void setLastDispatched(long processId) {
+        lastDispatched[0] = processId;
+    }
+
+    // Adds dispatch counts from an earlier run whose dispatches are not replayed
+    void addDispatches(long dispatches, long contextSwitches) {
+        this.dispatches += dispatches;
+        this.contextSwitches += contextSwitches;
+    }
+
+    @Override
+    public void onComplete(long time, long processId, long arrivalTime, int burstTime, long firstDispatchTime) {
+        long turnAround = time - arrivalTime;
+        turnAroundTime.record(turnAround);
+        waitingTime.record(turnAround - burstTime);
+        responseTime.record(firstDispatchTime - arrivalTime);
+        firstArrival = Math.min(firstArrival, arrivalTime);
+        lastCompletion = Math.max(lastCompletion, time);
+    }
+
+    /**
+     * Turns percentile tracking on or off for the three distributions. Without
+     * it, their histograms keep only the count, mean and maximum, and allocate no
+     * buckets. Call it before the first completion.
+     *
+     * @param enabled False when only averages are needed
+     */
+    public void setTracksPercentiles(boolean enabled) {
+        responseTime.setTracksPercentiles(enabled);
+        waitingTime.setTracksPercentiles(enabled);
+        turnAroundTime.setTracksPercentiles(enabled);
+    }
+
+    public LatencyHistogram getResponseTime() {
+        return responseTime;
+    }
+
+    public LatencyHistogram getWaitingTime() {
+        return waitingTime;
+    }
+
+    public LatencyHistogram getTurnAroundTime() {
+        return turnAroundTime;
+    }
+
+    public long getCompleted() {
+        return turnAroundTime.getCount();
+    }
+
+    public long getDispatches() {
+        return dispatches;
+    }
+
+    public long getContextSwitches() {
+        return contextSwitches;
+    }
+
+    /**
+     * Returns completed processes per time unit, from the earliest arrival to the
+     * latest completion.
+     *
+     * @return Throughput, or 0 if nothing has completed
+     */
+    public double getThroughput() {
+        long span = lastCompletion - firstArrival;
+        if (getCompleted() == 0) {
+            return 0;
+        }
+        return span <= 0 ? getCompleted() : (double) getCompleted() / span;
+    }
+
+    /**
+     * Displays the latency distributions, throughput and context switches.
+     */
+    public void display() {
+        try {
+            ResultRenderer out = ResultRenderer.standardOutput();
+            render(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error displaying metrics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the latency distributions, throughput and context switches to a
+     * renderer.
+     *
+     * @param out Renderer to write to
+     * @throws IOException If the output cannot be written
+     */
+    public void render(ResultRenderer out) throws IOException {
+        if (turnAroundTime.tracksPercentiles()) {
+            out.appendf("\n%-12s %10s %10s %10s %10s %10s\n", "", "Mean", "p50", "p95", "p99", "Max");
+            renderRow(out, "Response", responseTime);
+            renderRow(out, "Waiting", waitingTime);
+            renderRow(out, "Turnaround", turnAroundTime);
+        }
+        out.appendf("\nThroughput: %.4f processes/ms\n", getThroughput());
+        out.append("Context switches: ").appendNumber(contextSwitches).append("\n");
+    }
+
+    private static void renderRow(ResultRenderer out, String name, LatencyHistogram histogram) throws IOException {
+        out.appendf("%-12s %10.2f %10d %10d %10d %10d\n", name, histogram.getMean(),
+                histogram.getPercentile(50), histogram.getPercentile(95), histogram.getPercentile(99),
+                histogram.getMax());
+    }
+}
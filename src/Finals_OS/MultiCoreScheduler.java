@@ -0,0 +1,543 @@
+package Finals_OS;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Runs any of the scheduling policies on a machine with several cores. Each
+ * core has its own Gantt Chart lane, and the scheduler reports per-core
+ * utilization and how often processes migrate between cores.
+ *
+ * Ready processes wait either in one global queue shared by all cores or in
+ * one run queue per core (see QueueMode). With one core and a global queue the
+ * schedule is the same as the single-CPU algorithms.
+ *
+ * Preemptive policies (SRTF and preemptive priority) preempt only when a
+ * waiting process is strictly better than a running one, ties going to the
+ * lower process index as in the single-CPU algorithms. With a global queue an
+ * arrival preempts the worst running process; with per-core queues a process
+ * only preempts the process running on its own core.
+ */
+public class MultiCoreScheduler extends SchedulingAlgorithm {
+
+    /** Where ready processes wait. */
+    public enum QueueMode {
+        /** One ready queue shared by all cores; any free core takes the next process. */
+        GLOBAL("global"),
+        /**
+         * One run queue per core. An arrival joins the core with the fewest running
+         * and waiting processes, and stays on that core until it completes.
+         */
+        LOAD_BALANCED("balanced"),
+        /**
+         * One run queue per core. Arrivals are spread over the cores in turn, and a
+         * core that runs out of work takes the next process from the longest queue.
+         */
+        WORK_STEALING("stealing");
+
+        private final String commandName; // Name used on the command line
+
+        QueueMode(String commandName) {
+            this.commandName = commandName;
+        }
+
+        public String getCommandName() {
+            return commandName;
+        }
+
+        /**
+         * Looks up a queue mode by its command-line name (case-insensitive).
+         *
+         * @param name Command-line name, e.g. "global" or "stealing"
+         * @return Matching queue mode
+         * @throws IllegalArgumentException If no queue mode has that name
+         */
+        public static QueueMode fromCommandName(String name) {
+            for (QueueMode mode : values()) {
+                if (mode.commandName.equalsIgnoreCase(name)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown queue mode: " + name);
+        }
+    }
+
+    private final Algorithm algorithm; // Scheduling policy used on every core
+    private final int timeQuantum; // Time quantum (Round Robin only)
+    private final int cores; // Number of cores
+    private final QueueMode queueMode; // Global queue or per-core queues
+    private final boolean preemptive; // True if a waiting process can take a core from a running one
+
+    // Ready queues: one for GLOBAL, one per core otherwise. Only one of the two arrays is used.
+    private IntRingQueue[] fifoQueues; // For FCFS and Round Robin
+    private ProcessHeap[] heapQueues; // For SJF, SRTF and priority
+
+    // Per-process state
+    private int[] remainingTime; // Remaining burst time
+    private int[] lastCore; // Core the process last ran on, or -1
+
+    // Per-core state
+    private int[] running; // Process running on each core, or -1
+    private int[] runStart; // Time the running process's remaining time was last updated
+    private int[] sliceEnd; // Time the running process's quantum expires (Round Robin)
+    private int[] expired; // Round Robin process whose quantum just expired on each core, or -1
+    private int[] lastRan; // Process that last ran on each core, or -1
+    private int[] idleSince; // Time each core became idle, or -1 while it is busy
+    private long[] busyTime; // Time each core spent running processes
+    private long[] dispatches; // Dispatches on each core
+    private long[] migrationsIn; // Dispatches on each core of a process that last ran elsewhere
+    private long migrations; // Total number of migrations
+    private int nextPlacement; // Core that gets the next arrival in WORK_STEALING mode
+
+    // Gantt Chart lanes, one per core, with the same merging as SchedulingAlgorithm
+    private final GanttSink[] laneSinks; // Receives each core's segments
+    private final int[] pendingLabel; // Label of the segment not yet passed to the lane's sink
+    private final int[] pendingStart; // Start time of the pending segment
+    private final int[] pendingEnd; // End time of the pending segment
+    private final boolean[] hasPending; // True if the lane has a pending segment
+
+    public MultiCoreScheduler(Process[] processes, Algorithm algorithm, int timeQuantum, int cores,
+            QueueMode queueMode) {
+        this(Workload.fromProcesses(processes), algorithm, timeQuantum, cores, queueMode);
+        this.processes = processes;
+    }
+
+    public MultiCoreScheduler(Workload workload, Algorithm algorithm, int timeQuantum, int cores,
+            QueueMode queueMode) {
+        super(workload);
+        if (cores < 1) {
+            throw new IllegalArgumentException("There must be at least one core");
+        }
+        if (algorithm == Algorithm.MLFQ || algorithm == Algorithm.CFS || algorithm == Algorithm.LOTTERY
+                || algorithm == Algorithm.STRIDE) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " is not supported here");
+        }
+        if (algorithm.usesTimeQuantum() && timeQuantum <= 0) {
+            throw new IllegalArgumentException("Round Robin needs a positive time quantum");
+        }
+        this.algorithm = algorithm;
+        this.timeQuantum = timeQuantum;
+        this.cores = cores;
+        this.queueMode = queueMode;
+        this.preemptive = algorithm == Algorithm.SRTF || algorithm == Algorithm.PRIORITY_PREEMPTIVE;
+
+        this.laneSinks = new GanttSink[cores];
+        for (int c = 0; c < cores; c++) {
+            laneSinks[c] = new GanttChart();
+        }
+        this.pendingLabel = new int[cores];
+        this.pendingStart = new int[cores];
+        this.pendingEnd = new int[cores];
+        this.hasPending = new boolean[cores];
+    }
+
+    /**
+     * Only GanttSink.NONE can be applied to every core at once; use
+     * setGanttSink(core, sink) to send a core's lane elsewhere.
+     *
+     * @param sink GanttSink.NONE
+     */
+    @Override
+    public void setGanttSink(GanttSink sink) {
+        if (sink != GanttSink.NONE) {
+            throw new IllegalArgumentException("Each core needs its own Gantt sink");
+        }
+        Arrays.fill(laneSinks, GanttSink.NONE);
+    }
+
+    /**
+     * Sends one core's Gantt Chart segments to the given sink instead of its
+     * in-memory lane.
+     *
+     * @param core Core index
+     * @param sink Sink that receives the core's segments
+     */
+    public void setGanttSink(int core, GanttSink sink) {
+        laneSinks[core] = sink;
+    }
+
+    /**
+     * Returns the first core's in-memory Gantt Chart lane.
+     *
+     * @return Gantt Chart of core 0, or null if its segments were sent to another sink
+     */
+    @Override
+    public GanttChart getGanttChart() {
+        return getGanttChart(0);
+    }
+
+    /**
+     * Returns one core's in-memory Gantt Chart lane.
+     *
+     * @param core Core index
+     * @return Gantt Chart, or null if the core's segments were sent to another sink
+     */
+    public GanttChart getGanttChart(int core) {
+        return laneSinks[core] instanceof GanttChart ? (GanttChart) laneSinks[core] : null;
+    }
+
+    public int getCoreCount() {
+        return cores;
+    }
+
+    /**
+     * Returns the share of the last run's length that a core spent running
+     * processes.
+     *
+     * @param core Core index
+     * @return Utilization percentage
+     */
+    public double getCoreUtilization(int core) {
+        return currentTime == 0 ? 0 : (double) busyTime[core] / currentTime * 100;
+    }
+
+    /**
+     * Returns how many times a process was dispatched on a core other than the
+     * one it last ran on.
+     *
+     * @return Number of migrations
+     */
+    public long getMigrations() {
+        return migrations;
+    }
+
+    @Override
+    public void schedule() {
+        try {
+            int n = workload.size();
+            int queues = queueMode == QueueMode.GLOBAL ? 1 : cores;
+            boolean fifoPolicy = algorithm == Algorithm.FCFS || algorithm == Algorithm.ROUND_ROBIN;
+            fifoQueues = fifoPolicy ? new IntRingQueue[queues] : null;
+            heapQueues = fifoPolicy ? null : new ProcessHeap[queues];
+            for (int q = 0; q < queues; q++) {
+                if (fifoPolicy) {
+                    fifoQueues[q] = new IntRingQueue(Math.max(16, n / queues));
+                } else {
+                    heapQueues[q] = new ProcessHeap(Math.max(16, n / queues));
+                }
+            }
+
+            remainingTime = workload.BT.clone();
+            lastCore = new int[n];
+            Arrays.fill(lastCore, -1);
+            running = new int[cores];
+            Arrays.fill(running, -1);
+            runStart = new int[cores];
+            sliceEnd = new int[cores];
+            expired = new int[cores];
+            Arrays.fill(expired, -1);
+            lastRan = new int[cores];
+            Arrays.fill(lastRan, -1);
+            idleSince = new int[cores]; // Every core is idle from time 0
+            busyTime = new long[cores];
+            dispatches = new long[cores];
+            migrationsIn = new long[cores];
+            migrations = 0;
+            nextPlacement = 0;
+
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            int completed = 0; // Number of completed processes
+            // As in the single-CPU algorithms, only preemptive policies and Round Robin
+            // skip the queue for zero-length bursts
+            boolean zeroBurstOnArrival = preemptive || algorithm == Algorithm.ROUND_ROBIN;
+            currentTime = 0;
+
+            while (completed < n) {
+                // The next event is an arrival, a completion or a quantum expiry.
+                // Scanning the cores is cheap next to the work done per event.
+                int t = nextArrival < n ? workload.AT[order[nextArrival]] : Integer.MAX_VALUE;
+                for (int c = 0; c < cores; c++) {
+                    if (running[c] != -1) {
+                        t = Math.min(t, Math.min(runStart[c] + remainingTime[running[c]], sliceEnd[c]));
+                    }
+                }
+                currentTime = t;
+
+                // Bring every running process up to time t and end the runs that are over
+                for (int c = 0; c < cores; c++) {
+                    int p = running[c];
+                    if (p == -1) {
+                        continue;
+                    }
+                    addToLane(c, p, runStart[c], t);
+                    busyTime[c] += t - runStart[c];
+                    remainingTime[p] -= t - runStart[c];
+                    runStart[c] = t;
+                    if (remainingTime[p] == 0) {
+                        recordCompletion(p, t);
+                        completed++;
+                        release(c, t);
+                    } else if (t == sliceEnd[c]) {
+                        expired[c] = p; // Re-queued after this time's arrivals
+                        release(c, t);
+                    }
+                }
+
+                // Admit every process that has arrived by time t
+                while (nextArrival < n && workload.AT[order[nextArrival]] <= t) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] == 0 && zeroBurstOnArrival) {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
+                    } else {
+                        enqueue(placementQueue(), i);
+                    }
+                }
+
+                // Processes whose quantum expired go behind the arrivals
+                for (int c = 0; c < cores; c++) {
+                    if (expired[c] != -1) {
+                        enqueue(queueMode == QueueMode.GLOBAL ? 0 : c, expired[c]);
+                        expired[c] = -1;
+                    }
+                }
+
+                if (queueMode == QueueMode.GLOBAL) {
+                    dispatchGlobal(t);
+                } else {
+                    dispatchPerCore(t);
+                }
+            }
+
+            finishLanes();
+            calculateMetrics(); // Calculate metrics after scheduling
+        } catch (Exception e) {
+            System.err.println("Error during multi-core scheduling: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    protected void calculateMetrics() {
+        super.calculateMetrics();
+        cpuUtilization /= cores; // Share of the capacity of all cores
+    }
+
+    @Override
+    protected void renderMetrics(ResultRenderer out) throws IOException {
+        super.renderMetrics(out);
+        out.append("Migrations: ").appendNumber(migrations).append("\n");
+        out.append("\nCore\tUtil\tDispatches\tMigrations in\n");
+        for (int c = 0; c < cores; c++) {
+            out.appendLeft(c, 4).appendf("\t%.2f%%\t", getCoreUtilization(c));
+            out.appendLeft(dispatches[c], 10).append("\t").appendNumber(migrationsIn[c]).append("\n");
+        }
+    }
+
+    @Override
+    protected void renderGanttChart(ResultRenderer out) throws IOException {
+        out.append("\nGantt Chart:\n");
+        for (int c = 0; c < cores; c++) {
+            out.append("Core ").appendNumber(c).append(":\n");
+            GanttChart lane = getGanttChart(c);
+            if (lane == null) {
+                out.append("(not recorded)\n");
+            } else {
+                out.appendGanttLane(lane, workload, currentTime);
+            }
+        }
+    }
+
+    // Fills idle cores from the shared queue, then lets better processes preempt the worst running ones
+    private void dispatchGlobal(int t) {
+        for (int c = 0; c < cores && !isEmpty(0); c++) {
+            if (running[c] == -1) {
+                dispatch(c, select(0), t);
+            }
+        }
+        while (preemptive && !isEmpty(0)) {
+            // Every core is busy here; find the running process with the worst key
+            int worst = 0;
+            for (int c = 1; c < cores; c++) {
+                if (better(running[worst], running[c])) {
+                    worst = c;
+                }
+            }
+            if (!waitingBetter(0, running[worst])) {
+                break;
+            }
+            enqueue(0, running[worst]);
+            running[worst] = -1;
+            dispatch(worst, select(0), t);
+        }
+    }
+
+    // Lets each core take work from its own queue, stealing if allowed, and applies preemption per core
+    private void dispatchPerCore(int t) {
+        for (int c = 0; c < cores; c++) {
+            if (running[c] == -1) {
+                int q = c;
+                if (isEmpty(c) && queueMode == QueueMode.WORK_STEALING) {
+                    q = longestQueue();
+                }
+                if (q != -1 && !isEmpty(q)) {
+                    dispatch(c, select(q), t);
+                }
+            } else if (preemptive && !isEmpty(c) && waitingBetter(c, running[c])) {
+                enqueue(c, running[c]);
+                running[c] = -1;
+                dispatch(c, select(c), t);
+            }
+        }
+    }
+
+    // Starts running a process on a core at time t
+    private void dispatch(int c, int p, int t) {
+        if (idleSince[c] != -1 && idleSince[c] < t) {
+            countIdleGap(idleSince[c], t);
+            addToLane(c, GanttSink.IDLE, idleSince[c], t); // "////" denotes idle time
+        }
+        idleSince[c] = -1;
+        running[c] = p;
+        runStart[c] = t;
+        sliceEnd[c] = algorithm == Algorithm.ROUND_ROBIN ? (int) Math.min(Integer.MAX_VALUE, (long) t + timeQuantum)
+                : Integer.MAX_VALUE;
+
+        if (workload.responseTime[p] < 0) {
+            workload.responseTime[p] = t - workload.AT[p]; // RT = first dispatch - AT
+        }
+        if (lastCore[p] != -1 && lastCore[p] != c) {
+            migrations++;
+            migrationsIn[c]++;
+        }
+        lastCore[p] = c;
+        if (lastRan[c] != p) {
+            // A Round Robin process that gets another quantum on the same core keeps running
+            countDispatch(lastRan[c] != -1 && remainingTime[lastRan[c]] > 0); // Previous process unfinished
+            dispatches[c]++;
+            metrics.onDispatch(t, p, c);
+            lastRan[c] = p;
+        }
+    }
+
+    // Marks a core as idle from time t
+    private void release(int c, int t) {
+        running[c] = -1;
+        idleSince[c] = t;
+    }
+
+    // Queue that receives the next arrival
+    private int placementQueue() {
+        switch (queueMode) {
+            case GLOBAL:
+                return 0;
+            case LOAD_BALANCED:
+                int best = 0;
+                int bestLoad = Integer.MAX_VALUE;
+                for (int c = 0; c < cores; c++) {
+                    int load = size(c) + (running[c] != -1 ? 1 : 0);
+                    if (load < bestLoad) {
+                        best = c;
+                        bestLoad = load;
+                    }
+                }
+                return best;
+            default:
+                int c = nextPlacement;
+                nextPlacement = (nextPlacement + 1) % cores;
+                return c;
+        }
+    }
+
+    // Per-core queue with the most waiting processes, or -1 if every queue is empty
+    private int longestQueue() {
+        int longest = -1;
+        for (int c = 0; c < cores; c++) {
+            if (!isEmpty(c) && (longest == -1 || size(c) > size(longest))) {
+                longest = c;
+            }
+        }
+        return longest;
+    }
+
+    // Heap key: the policy's ordering value
+    private long key(int p) {
+        switch (algorithm) {
+            case SJF:
+                return workload.BT[p];
+            case SRTF:
+                return remainingTime[p];
+            default:
+                return workload.priority[p];
+        }
+    }
+
+    // True if process a is ordered before process b
+    private boolean better(int a, int b) {
+        long keyA = key(a);
+        long keyB = key(b);
+        return keyA < keyB || (keyA == keyB && a < b);
+    }
+
+    // True if the best process in a heap queue is ordered before process p
+    private boolean waitingBetter(int q, int p) {
+        long waitingKey = heapQueues[q].peekKey();
+        long runningKey = key(p);
+        return waitingKey < runningKey || (waitingKey == runningKey && heapQueues[q].peek() < p);
+    }
+
+    private void enqueue(int q, int p) {
+        if (fifoQueues != null) {
+            fifoQueues[q].offer(p);
+        } else {
+            heapQueues[q].offer(p, key(p));
+        }
+    }
+
+    // Takes the next process from a queue, with instrumentation
+    private int select(int q) {
+        long selection = startSelection(size(q));
+        int p = poll(q);
+        endSelection(selection);
+        return p;
+    }
+
+    private int poll(int q) {
+        return fifoQueues != null ? fifoQueues[q].poll() : heapQueues[q].poll();
+    }
+
+    private boolean isEmpty(int q) {
+        return fifoQueues != null ? fifoQueues[q].isEmpty() : heapQueues[q].isEmpty();
+    }
+
+    private int size(int q) {
+        return fifoQueues != null ? fifoQueues[q].size() : heapQueues[q].size();
+    }
+
+    // Adds a segment to a core's lane, merging it into the previous one if it continues it
+    private void addToLane(int c, int label, int startTime, int endTime) {
+        if (laneSinks[c] == GanttSink.NONE) {
+            return;
+        }
+        if (hasPending[c] && pendingLabel[c] == label && pendingEnd[c] == startTime) {
+            pendingEnd[c] = endTime; // Extend the current entry
+            return;
+        }
+        if (hasPending[c]) {
+            long recording = startGanttRecording();
+            laneSinks[c].accept(pendingLabel[c], pendingStart[c], pendingEnd[c]);
+            endGanttRecording(recording);
+        }
+        pendingLabel[c] = label;
+        pendingStart[c] = startTime;
+        pendingEnd[c] = endTime;
+        hasPending[c] = true;
+    }
+
+    // Pads every lane with idle time up to the end of the run and flushes it to its sink
+    private void finishLanes() {
+        for (int c = 0; c < cores; c++) {
+            if (idleSince[c] != -1 && idleSince[c] < currentTime) {
+                addToLane(c, GanttSink.IDLE, idleSince[c], currentTime);
+            }
+            long recording = startGanttRecording();
+            if (hasPending[c]) {
+                laneSinks[c].accept(pendingLabel[c], pendingStart[c], pendingEnd[c]);
+                hasPending[c] = false;
+            }
+            laneSinks[c].finish();
+            endGanttRecording(recording);
+        }
+    }
+}
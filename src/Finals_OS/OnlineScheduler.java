@@ -0,0 +1,292 @@
+package Finals_OS;
+
+import java.util.*;
+
+/**
+ * Incremental version of the scheduling algorithms. Instead of receiving every
+ * process up front, it is driven by the caller: submit() reports an arrival,
+ * advanceTo() moves the clock forward, and drain() runs until every submitted
+ * process has finished. Decisions are reported to a ScheduleListener as they
+ * are made.
+ *
+ * A process is forgotten as soon as it completes, so memory is bounded by the
+ * number of processes that have arrived but not finished. Ties go to the
+ * process submitted first, so for a workload whose input order is its arrival
+ * order the decisions match the batch algorithms. Zero-length bursts complete
+ * on arrival.
+ *
+ * Decisions at a given time are made only when the clock moves past it, so
+ * all processes arriving at the same time are considered together. In Round
+ * Robin, processes arriving when a quantum expires are queued before the
+ * preempted process, as in RoundRobinClass.
+ */
+public class OnlineScheduler {
+    private final Algorithm algorithm; // Scheduling policy
+    private final int timeQuantum; // Time quantum (Round Robin only)
+    private final ScheduleListener listener; // Receives the scheduling decisions
+    private final boolean preemptive; // True if an arrival can take the CPU from the running process
+    private final IntRingQueue fifo; // Ready queue for FCFS and Round Robin, otherwise null
+    private final ProcessHeap heap; // Ready queue for SJF, SRTF and priority, otherwise null
+
+    // Per-process state, indexed by slot. Slots are reused after a process completes.
+    private long[] processId; // ID given by the caller
+    private long[] arrivalTime; // Arrival time
+    private long[] firstDispatchTime; // Time of the first dispatch, -1 until dispatched
+    private int[] burstTime; // Burst time
+    private int[] remainingTime; // Remaining burst time
+    private int[] priority; // Priority (lower value means higher priority)
+    private long[] sequence; // Submission order, used to break ties
+    private int[] freeSlots; // Stack of unused slots
+    private int freeCount; // Number of unused slots on the stack
+    private int slotCount; // Number of slots ever used
+
+    private long currentTime; // Current simulation time
+    private long nextSequence; // Sequence number of the next submission; never wraps
+    private int running = -1; // Slot of the running process, or -1
+    private long sliceEnd; // Time the running process's quantum expires (Round Robin)
+    private int expired = -1; // Round Robin process whose quantum expired at currentTime, or -1
+    private int liveCount; // Processes submitted but not yet completed
+
+    /**
+     * Creates an online scheduler.
+     *
+     * @param algorithm   Scheduling policy
+     * @param timeQuantum Time quantum (only used by Round Robin)
+     * @param listener    Receives dispatch, preempt and complete events
+     */
+    public OnlineScheduler(Algorithm algorithm, int timeQuantum, ScheduleListener listener) {
+        if (algorithm == Algorithm.MLFQ || algorithm == Algorithm.CFS || algorithm == Algorithm.LOTTERY
+                || algorithm == Algorithm.STRIDE) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " is not supported here");
+        }
+        if (algorithm.usesTimeQuantum() && timeQuantum <= 0) {
+            throw new IllegalArgumentException("Round Robin needs a positive time quantum");
+        }
+        this.algorithm = algorithm;
+        this.timeQuantum = timeQuantum;
+        this.listener = listener;
+        this.preemptive = algorithm == Algorithm.SRTF || algorithm == Algorithm.PRIORITY_PREEMPTIVE;
+        boolean fifoPolicy = algorithm == Algorithm.FCFS || algorithm == Algorithm.ROUND_ROBIN;
+        this.fifo = fifoPolicy ? new IntRingQueue(64) : null;
+        this.heap = fifoPolicy ? null : new ProcessHeap(64) {
+            @Override
+            boolean before(int slotA, int slotB) {
+                return sequence[slotA] < sequence[slotB]; // Slots are reused, so compare submission order
+            }
+        };
+
+        int capacity = 64;
+        this.processId = new long[capacity];
+        this.arrivalTime = new long[capacity];
+        this.firstDispatchTime = new long[capacity];
+        this.burstTime = new int[capacity];
+        this.remainingTime = new int[capacity];
+        this.priority = new int[capacity];
+        this.sequence = new long[capacity];
+        this.freeSlots = new int[capacity];
+    }
+
+    /**
+     * Reports an arrival. Arrivals must be submitted in time order; the clock is
+     * first advanced to the arrival time.
+     *
+     * @param id       ID of the process, reported back in events
+     * @param arrival  Arrival time (not earlier than the current time)
+     * @param burst    Burst time (at least 0)
+     * @param priority Priority (lower value means higher priority)
+     */
+    public void submit(long id, long arrival, int burst, int priority) {
+        if (arrival < currentTime) {
+            throw new IllegalArgumentException("Arrival at " + arrival + " is before the current time " + currentTime);
+        }
+        if (burst < 0) {
+            throw new IllegalArgumentException("Burst time must not be negative");
+        }
+        advanceTo(arrival);
+
+        int slot = allocateSlot();
+        processId[slot] = id;
+        arrivalTime[slot] = arrival;
+        firstDispatchTime[slot] = -1;
+        burstTime[slot] = burst;
+        remainingTime[slot] = burst;
+        this.priority[slot] = priority;
+        sequence[slot] = nextSequence++;
+        liveCount++;
+
+        if (burst == 0) {
+            firstDispatchTime[slot] = arrival;
+            complete(slot); // A zero-length burst finishes on arrival
+        } else {
+            enqueue(slot);
+        }
+    }
+
+    /**
+     * Runs the schedule up to the given time. Decisions due exactly at that time
+     * are left until the clock moves further, so that processes arriving at that
+     * time can still be submitted.
+     *
+     * @param time Time to advance to (not earlier than the current time)
+     */
+    public void advanceTo(long time) {
+        if (time < currentTime) {
+            throw new IllegalArgumentException("Cannot move the clock back from " + currentTime + " to " + time);
+        }
+        while (currentTime < time) {
+            decide();
+            if (running == -1) {
+                currentTime = time; // Nothing to run: the CPU is idle
+                return;
+            }
+            long end = runEnd();
+            if (end > time) {
+                remainingTime[running] -= (int) (time - currentTime);
+                currentTime = time;
+                return;
+            }
+            remainingTime[running] -= (int) (end - currentTime);
+            currentTime = end;
+            endRun();
+        }
+    }
+
+    /**
+     * Runs until every submitted process has completed. The clock ends at the
+     * last completion.
+     */
+    public void drain() {
+        while (true) {
+            decide();
+            if (running == -1) {
+                return;
+            }
+            long end = runEnd();
+            remainingTime[running] -= (int) (end - currentTime);
+            currentTime = end;
+            endRun();
+        }
+    }
+
+    /**
+     * Returns the current simulation time.
+     *
+     * @return Current time
+     */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    /**
+     * Returns the number of processes that have arrived but not completed.
+     *
+     * @return Number of live processes
+     */
+    public int getLiveCount() {
+        return liveCount;
+    }
+
+    // Makes the scheduling decision at currentTime
+    private void decide() {
+        if (expired != -1) {
+            int p = expired;
+            expired = -1;
+            if (fifo.isEmpty()) {
+                // Nobody else is waiting, so the same process gets another quantum
+                running = p;
+                sliceEnd = currentTime + timeQuantum;
+                return;
+            }
+            listener.onPreempt(currentTime, processId[p]);
+            fifo.offer(p); // Behind the processes that arrived during its quantum
+        }
+
+        if (running != -1 && preemptive && !heap.isEmpty() && waitingFirst(running)) {
+            listener.onPreempt(currentTime, processId[running]);
+            heap.offer(running, key(running));
+            running = -1;
+        }
+
+        if (running == -1) {
+            if (fifo != null ? fifo.isEmpty() : heap.isEmpty()) {
+                return; // Nothing ready
+            }
+            running = fifo != null ? fifo.poll() : heap.poll();
+            if (firstDispatchTime[running] < 0) {
+                firstDispatchTime[running] = currentTime;
+            }
+            sliceEnd = algorithm == Algorithm.ROUND_ROBIN ? currentTime + timeQuantum : Long.MAX_VALUE;
+            listener.onDispatch(currentTime, processId[running]);
+        }
+    }
+
+    // Time at which the running process completes or its quantum expires
+    private long runEnd() {
+        return Math.min(currentTime + remainingTime[running], sliceEnd);
+    }
+
+    // Handles the end of the running process's current run at currentTime
+    private void endRun() {
+        int p = running;
+        running = -1;
+        if (remainingTime[p] == 0) {
+            complete(p);
+        } else {
+            expired = p; // Round Robin quantum expired; re-queued at the next decision
+        }
+    }
+
+    // Adds a process to the ready queue
+    private void enqueue(int slot) {
+        if (fifo != null) {
+            fifo.offer(slot);
+        } else {
+            heap.offer(slot, key(slot));
+        }
+    }
+
+    // Heap key: the policy's ordering value; the heap breaks ties by submission order
+    private long key(int slot) {
+        switch (algorithm) {
+            case SJF:
+                return burstTime[slot];
+            case SRTF:
+                return remainingTime[slot];
+            default:
+                return priority[slot];
+        }
+    }
+
+    // True if the first waiting process is ordered before the given one
+    private boolean waitingFirst(int slot) {
+        long waitingKey = heap.peekKey();
+        long key = key(slot);
+        return waitingKey < key || (waitingKey == key && sequence[heap.peek()] < sequence[slot]);
+    }
+
+    // Reports a completion and releases the process's slot
+    private void complete(int slot) {
+        liveCount--;
+        listener.onComplete(currentTime, processId[slot], arrivalTime[slot], burstTime[slot], firstDispatchTime[slot]);
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Takes an unused slot, growing the per-process arrays if needed
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (slotCount == processId.length) {
+            int capacity = slotCount * 2;
+            processId = Arrays.copyOf(processId, capacity);
+            arrivalTime = Arrays.copyOf(arrivalTime, capacity);
+            firstDispatchTime = Arrays.copyOf(firstDispatchTime, capacity);
+            burstTime = Arrays.copyOf(burstTime, capacity);
+            remainingTime = Arrays.copyOf(remainingTime, capacity);
+            priority = Arrays.copyOf(priority, capacity);
+            sequence = Arrays.copyOf(sequence, capacity);
+            freeSlots = Arrays.copyOf(freeSlots, capacity);
+        }
+        return slotCount++;
+    }
+}
@@ -1,18 +1,62 @@
 package Finals_OS;
 
+/**
+ * Priority scheduling, preemptive or not. A lower value means a higher
+ * priority.
+ *
+ * With aging, a process gains one priority level each time the clock passes a
+ * multiple of the aging interval while it waits in the ready queue, so a
+ * low-priority process cannot starve. It keeps the levels it gained while it
+ * runs, without gaining more. Aging is never applied process by process: a
+ * process that became ready at time t is queued under the key
+ * priority + t / agingInterval, and its effective priority at time now is that
+ * key minus now / agingInterval. Every waiting process ages at the same rate,
+ * so their order never changes and the keys stay valid. The keys are held in a
+ * bucket queue, where adding and selecting a process cost amortized O(1), unless
+ * the priorities spread over far more levels than there are processes; the
+ * queue then moves to a heap, with the same order.
+ *
+ * Without aging, processes of equal priority are taken by smallest index; with
+ * aging, the one that has waited longer goes first.
+ */
 public class PrioritySchedulingClass extends SchedulingAlgorithm {
 
     private boolean isPreemptive; // Determines if the scheduling is preemptive or non-preemptive
+    private final int agingInterval; // Waiting time per priority level gained, or 0 for no aging
 
     public PrioritySchedulingClass(Process[] processes, boolean isPreemptive) {
+        this(processes, isPreemptive, 0);
+    }
+
+    public PrioritySchedulingClass(Workload workload, boolean isPreemptive) {
+        this(workload, isPreemptive, 0);
+    }
+
+    /**
+     * Creates a priority scheduler with aging.
+     *
+     * @param processes     Array of processes to schedule
+     * @param isPreemptive  True for preemptive scheduling
+     * @param agingInterval Waiting time per priority level gained, or 0 for no aging
+     */
+    public PrioritySchedulingClass(Process[] processes, boolean isPreemptive, int agingInterval) {
         super(processes);
         this.isPreemptive = isPreemptive; // Initialize preemptive mode
+        this.agingInterval = checkAgingInterval(agingInterval);
+    }
+
+    public PrioritySchedulingClass(Workload workload, boolean isPreemptive, int agingInterval) {
+        super(workload);
+        this.isPreemptive = isPreemptive; // Initialize preemptive mode
+        this.agingInterval = checkAgingInterval(agingInterval);
     }
 
     @Override
     public void schedule() {
         try {
-            if (isPreemptive) {
+            if (isPreemptive && agingInterval > 0) {
+                schedulePreemptiveWithAging(); // The running process is compared with aging waiting processes
+            } else if (isPreemptive) {
                 schedulePreemptive(); // Execute preemptive scheduling logic
             } else {
                 scheduleNonPreemptive(); // Execute non-preemptive scheduling logic
@@ -28,59 +72,69 @@ public class PrioritySchedulingClass extends SchedulingAlgorithm {
     private void schedulePreemptive() {
         try {
             int completed = 0; // Tracks the number of completed processes
-            int[] remainingTime = new int[processes.length]; // Remaining burst times for each process
+            int[] remainingTime = new int[workload.size()]; // Remaining burst times for each process
 
             // Initialize remaining burst times
-            for (int i = 0; i < processes.length; i++) {
-                remainingTime[i] = processes[i].BT;
+            for (int i = 0; i < workload.size(); i++) {
+                remainingTime[i] = workload.BT[i];
             }
 
-            currentTime = findMinArrivalTime(); // Start at the earliest arrival time
-            int prevProcess = -1; // Tracks the previously executed process
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            ProcessHeap readyQueue = new ProcessHeap(workload.size()); // Ready processes keyed by priority
+
+            currentTime = workload.AT[order[0]]; // Start at the earliest arrival time
 
             // Handle initial idle time if the CPU starts idle
             if (currentTime > 0) {
                 addIdleTimeToGanttChart(0, currentTime);
             }
 
-            while (completed < processes.length) {
-                int highestPriorityIndex = -1; // Index of the highest-priority process
-                int highestPriority = Integer.MAX_VALUE; // Lower value indicates higher priority
-
-                // Find the highest-priority ready process
-                for (int i = 0; i < processes.length; i++) {
-                    if (remainingTime[i] > 0 && processes[i].AT <= currentTime) {
-                        if (processes[i].priority < highestPriority) {
-                            highestPriority = processes[i].priority;
-                            highestPriorityIndex = i;
-                        }
+            while (completed < workload.size()) {
+                // Admit every process that has arrived by the current time
+                while (nextArrival < order.length && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
+                        readyQueue.offer(i, workload.priority[i]);
+                    } else {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
                     }
                 }
 
-                if (highestPriorityIndex == -1) {
-                    // If no process is ready, handle idle time and wait for the next arrival
-                    int nextArrivalTime = findNextArrivalTime(currentTime);
+                if (readyQueue.isEmpty()) {
+                    if (completed == workload.size()) {
+                        break; // The last arrivals had zero-length bursts
+                    }
+                    // If no process is ready, handle idle time and jump to the next arrival
+                    int nextArrivalTime = workload.AT[order[nextArrival]];
                     addIdleTimeToGanttChart(currentTime, nextArrivalTime);
                     currentTime = nextArrivalTime;
                     continue;
                 }
 
-                // Add or update Gantt Chart based on process execution
-                if (prevProcess != highestPriorityIndex) {
-                    ganttChart.add(new GanttChart(processes[highestPriorityIndex].pid, currentTime, currentTime + 1));
-                    prevProcess = highestPriorityIndex;
-                } else {
-                    ganttChart.get(ganttChart.size() - 1).endTime++;
+                // The highest-priority process runs until it completes or the next process
+                // arrives, since only an arrival can change the choice
+                long selection = startSelection(readyQueue.size());
+                int highestPriorityIndex = readyQueue.peek();
+                endSelection(selection);
+                int runUntil = currentTime + remainingTime[highestPriorityIndex];
+                if (nextArrival < order.length && workload.AT[order[nextArrival]] < runUntil) {
+                    runUntil = workload.AT[order[nextArrival]];
                 }
 
-                remainingTime[highestPriorityIndex]--; // Decrement remaining time for the process
-                currentTime++; // Increment the current time
+                // Add to the Gantt Chart (continuing runs are merged into one entry)
+                recordDispatch(highestPriorityIndex, currentTime);
+                addToGanttChart(highestPriorityIndex, currentTime, runUntil);
+
+                remainingTime[highestPriorityIndex] -= runUntil - currentTime; // Decrease remaining time for the process
+                currentTime = runUntil; // Jump to the next event
 
                 // Check if the process is completed
                 if (remainingTime[highestPriorityIndex] == 0) {
-                    processes[highestPriorityIndex].completionTime = currentTime;
+                    readyQueue.poll();
+                    recordCompletion(highestPriorityIndex, currentTime);
                     completed++;
-                    prevProcess = -1; // Reset previous process tracking
                 }
             }
         } catch (Exception e) {
@@ -92,43 +146,45 @@ public class PrioritySchedulingClass extends SchedulingAlgorithm {
     // Handles non-preemptive priority scheduling
     private void scheduleNonPreemptive() {
         try {
-            currentTime = findMinArrivalTime(); // Start at the earliest arrival time
+            int completed = 0; // Tracks the number of completed processes
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            ProcessQueue readyQueue = agingInterval > 0 ? new AgedPriorityQueue(workload.size())
+                    : new ProcessHeap(workload.size()); // Ready processes keyed by (aged) priority
+
+            currentTime = workload.AT[order[0]]; // Start at the earliest arrival time
 
             // Handle initial idle time if the CPU starts idle
             if (currentTime > 0) {
                 addIdleTimeToGanttChart(0, currentTime);
             }
 
-            while (true) {
-                int highestPriorityIndex = -1;
-                int highestPriority = Integer.MAX_VALUE;
-
-                // Find the highest-priority ready process
-                for (int i = 0; i < processes.length; i++) {
-                    if (processes[i].AT <= currentTime && processes[i].completionTime == 0) {
-                        if (processes[i].priority < highestPriority) {
-                            highestPriority = processes[i].priority;
-                            highestPriorityIndex = i;
-                        }
-                    }
+            while (completed < workload.size()) {
+                // Admit every process that has arrived by the current time. Each process
+                // enters the ready queue exactly once, so a zero-length burst that
+                // completes at time 0 is never picked again.
+                while (nextArrival < order.length && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    readyQueue.offer(i, readyKey(workload.priority[i], workload.AT[i]));
                 }
 
-                if (highestPriorityIndex == -1) {
+                if (readyQueue.isEmpty()) {
                     // Handle idle time and move to the next arrival if no process is ready
-                    int nextArrivalTime = findNextArrivalTime(currentTime);
-                    if (nextArrivalTime == Integer.MAX_VALUE) {
-                        break; // Exit if all processes are completed
-                    }
+                    int nextArrivalTime = workload.AT[order[nextArrival]];
                     addIdleTimeToGanttChart(currentTime, nextArrivalTime);
                     currentTime = nextArrivalTime;
                     continue;
                 }
 
                 // Schedule the highest-priority process
-                Process p = processes[highestPriorityIndex];
-                ganttChart.add(new GanttChart(p.pid, currentTime, currentTime + p.BT));
-                currentTime += p.BT; // Update current time
-                p.completionTime = currentTime; // Set completion time
+                long selection = startSelection(readyQueue.size());
+                int i = readyQueue.poll();
+                endSelection(selection);
+                recordDispatch(i, currentTime);
+                addToGanttChart(i, currentTime, currentTime + workload.BT[i]);
+                currentTime += workload.BT[i]; // Update current time
+                recordCompletion(i, currentTime); // Set completion time
+                completed++;
             }
         } catch (Exception e) {
             System.err.println("Error during non-preemptive scheduling: " + e.getMessage());
@@ -136,49 +192,109 @@ public class PrioritySchedulingClass extends SchedulingAlgorithm {
         }
     }
 
-    // Finds the earliest arrival time among all processes
-    private int findMinArrivalTime() {
-        int minArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT < minArrivalTime) {
-                minArrivalTime = p.AT;
+    // Handles preemptive priority scheduling with aging. The running process is
+    // kept out of the ready queue, with the effective priority it had when it was
+    // dispatched, while the waiting processes keep aging past it.
+    private void schedulePreemptiveWithAging() {
+        try {
+            int n = workload.size();
+            int completed = 0; // Tracks the number of completed processes
+            int[] remainingTime = workload.BT.clone(); // Remaining burst times for each process
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            ProcessQueue readyQueue = new AgedPriorityQueue(n); // Waiting processes keyed by aged priority
+            int running = -1; // Process on the CPU, or -1 if it is free
+            long runningPriority = 0; // Effective priority of the running process
+
+            currentTime = workload.AT[order[0]]; // Start at the earliest arrival time
+
+            // Handle initial idle time if the CPU starts idle
+            if (currentTime > 0) {
+                addIdleTimeToGanttChart(0, currentTime);
             }
-        }
-        return minArrivalTime;
-    }
 
-    // Finds the next arrival time after the current time
-    private int findNextArrivalTime(int currentTime) {
-        int nextArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT > currentTime && p.AT < nextArrivalTime) {
-                nextArrivalTime = p.AT;
+            while (completed < n) {
+                // Admit every process that has arrived by the current time
+                while (nextArrival < n && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
+                        readyQueue.offer(i, readyKey(workload.priority[i], workload.AT[i]));
+                    } else {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
+                    }
+                }
+
+                // A waiting process with a higher effective priority preempts the running one,
+                // which goes back to waiting behind the processes of equal priority
+                if (running != -1 && !readyQueue.isEmpty()
+                        && readyQueue.peekKey() < readyKey(runningPriority, currentTime)) {
+                    readyQueue.offer(running, readyKey(runningPriority, currentTime));
+                    running = -1;
+                }
+
+                if (running == -1) {
+                    if (readyQueue.isEmpty()) {
+                        if (completed == n) {
+                            break; // The last arrivals had zero-length bursts
+                        }
+                        // If no process is ready, handle idle time and jump to the next arrival
+                        int nextArrivalTime = workload.AT[order[nextArrival]];
+                        addIdleTimeToGanttChart(currentTime, nextArrivalTime);
+                        currentTime = nextArrivalTime;
+                        continue;
+                    }
+                    long selection = startSelection(readyQueue.size());
+                    runningPriority = readyQueue.peekKey() - currentTime / agingInterval; // Aged so far
+                    running = readyQueue.poll();
+                    endSelection(selection);
+                }
+
+                // Run until the process completes, the next process arrives, or the first
+                // waiting process has aged past it
+                long runUntil = (long) currentTime + remainingTime[running];
+                if (nextArrival < n) {
+                    runUntil = Math.min(runUntil, workload.AT[order[nextArrival]]);
+                }
+                if (!readyQueue.isEmpty()) {
+                    runUntil = Math.min(runUntil, (readyQueue.peekKey() - runningPriority + 1) * agingInterval);
+                }
+
+                // Add to the Gantt Chart (continuing runs are merged into one entry)
+                recordDispatch(running, currentTime);
+                addToGanttChart(running, currentTime, (int) runUntil);
+
+                remainingTime[running] -= (int) runUntil - currentTime; // Decrease remaining time for the process
+                currentTime = (int) runUntil; // Jump to the next event
+
+                // Check if the process is completed
+                if (remainingTime[running] == 0) {
+                    recordCompletion(running, currentTime);
+                    completed++;
+                    running = -1;
+                }
             }
+        } catch (Exception e) {
+            System.err.println("Error during preemptive scheduling: " + e.getMessage());
+            e.printStackTrace();
         }
-        return nextArrivalTime;
     }
 
-    @Override
-    public void displayResults() {
-        try {
-            // Display process details including priority
-            System.out.println("\nP\tPriority\tAT\tBT\tCT\tTAT\tWT");
-            char processID = 'A';
-            for (Process p : processes) {
-                System.out.printf("%-2s\t%-8d\t%-2d\t%-2d\t%-3d\t%-3d\t%-3d\n",
-                        processID, p.priority, p.AT, p.BT, p.completionTime,
-                        p.turnAroundTime, p.waitingTime);
-                processID++;
-            }
+    // Ready queue key of a process with the given effective priority that starts waiting at time:
+    // its priority, offset by the aging intervals that have passed, so it needs no updates as it ages
+    private long readyKey(long effectivePriority, int time) {
+        return agingInterval > 0 ? effectivePriority + time / agingInterval : effectivePriority;
+    }
 
-            // Display average metrics and Gantt Chart
-            System.out.printf("\nAveTAT: %.2f ms\n", avgTurnAroundTime);
-            System.out.printf("AveWT: %.2f ms\n", avgWaitingTime);
-            System.out.printf("CPU Util: %.2f%%\n", cpuUtilization);
-            displayGanttChart();
-        } catch (Exception e) {
-            System.err.println("Error displaying results: " + e.getMessage());
-            e.printStackTrace();
+    private static int checkAgingInterval(int agingInterval) {
+        if (agingInterval < 0) {
+            throw new IllegalArgumentException("Aging interval must not be negative");
         }
+        return agingInterval;
+    }
+
+    @Override
+    protected boolean showsPriority() {
+        return true; // Add a priority column to the process table
     }
 }
\ No newline at end of file
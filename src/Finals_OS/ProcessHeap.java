@@ -0,0 +1,129 @@
+package Finals_OS;
+
+/**
+ * Binary min-heap of process indices ordered by a long key. Ties on the key are
+ * broken by the smaller process index, which matches the "first index wins"
+ * behavior of the original linear scans; subclasses can override before() to
+ * break them another way.
+ */
+class ProcessHeap implements ProcessQueue {
+    private int[] index; // Process index stored at each heap position
+    private long[] key; // Key stored at each heap position
+    private int size; // Number of entries in the heap
+
+    /**
+     * Creates an empty heap.
+     *
+     * @param capacity Initial capacity (the heap grows if it is exceeded)
+     */
+    ProcessHeap(int capacity) {
+        this.index = new int[Math.max(1, capacity)];
+        this.key = new long[Math.max(1, capacity)];
+        this.size = 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int peek() {
+        return index[0];
+    }
+
+    @Override
+    public long peekKey() {
+        return key[0];
+    }
+
+    @Override
+    public void offer(int processIndex, long processKey) {
+        if (size == index.length) {
+            index = java.util.Arrays.copyOf(index, size * 2);
+            key = java.util.Arrays.copyOf(key, size * 2);
+        }
+        int pos = size++;
+        // Sift up
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!less(processIndex, processKey, index[parent], key[parent])) {
+                break;
+            }
+            index[pos] = index[parent];
+            key[pos] = key[parent];
+            pos = parent;
+        }
+        index[pos] = processIndex;
+        key[pos] = processKey;
+    }
+
+    @Override
+    public int poll() {
+        int top = index[0];
+        size--;
+        if (size > 0) {
+            siftDown(index[size], key[size]);
+        }
+        return top;
+    }
+
+    // Changes the key of the top process and restores the heap order
+    void replaceTopKey(long newKey) {
+        siftDown(index[0], newKey);
+    }
+
+    // Places (processIndex, processKey) at the root and sifts it down
+    private void siftDown(int processIndex, long processKey) {
+        int pos = 0;
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            int right = child + 1;
+            if (right < size && less(index[right], key[right], index[child], key[child])) {
+                child = right;
+            }
+            if (!less(index[child], key[child], processIndex, processKey)) {
+                break;
+            }
+            index[pos] = index[child];
+            key[pos] = key[child];
+            pos = child;
+        }
+        index[pos] = processIndex;
+        key[pos] = processKey;
+    }
+
+    // Heap contents in heap order, for checkpoints
+    int[] indices() {
+        return java.util.Arrays.copyOf(index, size);
+    }
+
+    // Keys in heap order, matching indices()
+    long[] keys() {
+        return java.util.Arrays.copyOf(key, size);
+    }
+
+    // Rebuilds a heap from the indices() and keys() of another heap
+    static ProcessHeap restore(int[] indices, long[] keys, int capacity) {
+        ProcessHeap heap = new ProcessHeap(Math.max(capacity, indices.length));
+        System.arraycopy(indices, 0, heap.index, 0, indices.length);
+        System.arraycopy(keys, 0, heap.key, 0, keys.length);
+        heap.size = indices.length;
+        return heap;
+    }
+
+    // True if process a goes first among processes with equal keys
+    boolean before(int indexA, int indexB) {
+        return indexA < indexB;
+    }
+
+    private boolean less(int indexA, long keyA, int indexB, long keyB) {
+        return keyA < keyB || (keyA == keyB && before(indexA, indexB));
+    }
+}
@@ -0,0 +1,23 @@
+package Finals_OS;
+
+/**
+ * Ready queue of process indices ordered by a long key, smallest key first.
+ * Implementations differ in how they break ties and in what they cost.
+ */
+interface ProcessQueue {
+    boolean isEmpty();
+
+    int size();
+
+    // Adds a process with the given key
+    void offer(int processIndex, long processKey);
+
+    // Index of the process with the smallest key
+    int peek();
+
+    // Key of the process with the smallest key
+    long peekKey();
+
+    // Removes and returns the process with the smallest key
+    int poll();
+}
@@ -0,0 +1,245 @@
+package Finals_OS;
+
+import java.io.IOException;
+
+/**
+ * Base class of the proportional-share schedulers. Each process holds tickets
+ * derived from its priority, with the same weights as CFS (priority 0 holds
+ * 1024 tickets), and should get a share of the CPU proportional to its
+ * tickets while it is runnable. Subclasses decide which runnable process gets
+ * each time quantum.
+ *
+ * A process runs until it completes or its quantum ends; arrivals join at once
+ * but do not preempt it. After the run, each process's share deviation is its
+ * CPU time minus its ticket share of the CPU while it was runnable: the
+ * integral of tickets / (tickets of all runnable processes) from its arrival to
+ * its completion. The deviations add up to 0. The integral is kept as one
+ * running sum of 1 / total tickets, so the accounting costs O(1) per event.
+ */
+public abstract class ProportionalShareScheduler extends SchedulingAlgorithm {
+    private final int timeQuantum; // Longest run before the next process is chosen
+    private double[] shareDeviation; // CPU time minus ticket share of each process, after a run
+    private int maxDeviationProcess = -1; // Process with the largest absolute deviation, or -1
+    private double meanAbsoluteDeviation; // Mean absolute deviation over the processes with a burst
+
+    protected ProportionalShareScheduler(Process[] processes, int timeQuantum) {
+        super(processes);
+        this.timeQuantum = checkTimeQuantum(timeQuantum);
+    }
+
+    protected ProportionalShareScheduler(Workload workload, int timeQuantum) {
+        super(workload);
+        this.timeQuantum = checkTimeQuantum(timeQuantum);
+    }
+
+    /**
+     * Returns the number of tickets of a process.
+     *
+     * @param process Index of the process
+     * @return Tickets, from 15 to 88761
+     */
+    protected int ticketsOf(int process) {
+        return CFSClass.weightOf(workload.priority[process]);
+    }
+
+    /**
+     * Called before scheduling starts, to set up the selection structures.
+     *
+     * @param processes Number of processes
+     */
+    protected abstract void startRun(int processes);
+
+    /**
+     * Called when a process with a positive burst time becomes runnable.
+     *
+     * @param process Index of the process
+     */
+    protected abstract void onArrival(int process);
+
+    /**
+     * Chooses the process for the next time quantum. There is at least one
+     * runnable process, and the one whose quantum just ended is still runnable
+     * unless it completed.
+     *
+     * @return Index of the chosen process
+     */
+    protected abstract int pickNext();
+
+    /**
+     * Called when a process's quantum ends, or earlier if it completes.
+     *
+     * @param process   Index of the process
+     * @param used      Time it ran in the quantum
+     * @param completed True if it completed and is no longer runnable
+     */
+    protected abstract void onTurnEnd(int process, int used, boolean completed);
+
+    @Override
+    public void schedule() {
+        try {
+            int n = workload.size();
+            int[] remainingTime = workload.BT.clone(); // Remaining burst time of each process
+            shareDeviation = new double[n]; // Holds the share integral at arrival until the process completes
+            double sharePerTicket = 0; // Integral of 1 / runnable tickets over the time so far
+            long runnableTickets = 0; // Tickets of the runnable processes, including the running one
+            int runnable = 0; // Number of runnable processes, including the running one
+            startRun(n);
+
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            int running = -1; // Process holding the CPU, or -1
+            long quantumEnd = 0; // Time the running process's quantum ends
+            int used = 0; // Time the running process has run in its quantum
+            int completed = 0; // Number of completed processes
+
+            currentTime = workload.AT[order[0]]; // Start time is the earliest arrival time
+
+            // Check for initial idle time before the first process arrives
+            if (currentTime > 0) {
+                addIdleTimeToGanttChart(0, currentTime);
+            }
+
+            while (completed < n) {
+                // New processes join the draw as soon as they arrive
+                while (nextArrival < n && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
+                        shareDeviation[i] = sharePerTicket;
+                        runnableTickets += ticketsOf(i);
+                        runnable++;
+                        onArrival(i);
+                    } else {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
+                    }
+                }
+
+                if (running == -1) {
+                    if (runnable == 0) {
+                        if (completed == n) {
+                            break; // The last arrivals had zero-length bursts
+                        }
+                        // If no process is ready, move time forward to the next arrival time
+                        int nextArrivalTime = workload.AT[order[nextArrival]];
+                        addIdleTimeToGanttChart(currentTime, nextArrivalTime);
+                        currentTime = nextArrivalTime;
+                        continue;
+                    }
+                    long selection = startSelection(runnable);
+                    running = pickNext();
+                    endSelection(selection);
+                    quantumEnd = (long) currentTime + timeQuantum;
+                    used = 0;
+                    recordDispatch(running, currentTime); // Ignored if the same process wins again
+                }
+
+                // Run until the process completes, its quantum ends or the next process arrives
+                long runUntil = Math.min((long) currentTime + remainingTime[running], quantumEnd);
+                if (nextArrival < n) {
+                    runUntil = Math.min(runUntil, workload.AT[order[nextArrival]]);
+                }
+                int executionTime = (int) (runUntil - currentTime);
+                addToGanttChart(running, currentTime, (int) runUntil); // Merged if continuing
+                sharePerTicket += (double) executionTime / runnableTickets;
+                currentTime = (int) runUntil;
+                remainingTime[running] -= executionTime;
+                used += executionTime;
+
+                if (remainingTime[running] == 0) {
+                    onTurnEnd(running, used, true);
+                    int tickets = ticketsOf(running);
+                    shareDeviation[running] = workload.BT[running]
+                            - tickets * (sharePerTicket - shareDeviation[running]);
+                    runnableTickets -= tickets;
+                    runnable--;
+                    recordCompletion(running, currentTime); // Set completion time
+                    completed++;
+                    running = -1;
+                } else if (currentTime == quantumEnd) {
+                    onTurnEnd(running, used, false);
+                    running = -1;
+                }
+            }
+
+            summarizeDeviations();
+            calculateMetrics(); // Calculate the average metrics and CPU utilization
+        } catch (Exception e) {
+            System.err.println("Error during " + getClass().getSimpleName() + " scheduling: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns how far a process's CPU time deviated from its ticket share while
+     * it was runnable, after a run. A positive value means it got more than its
+     * share.
+     *
+     * @param process Index of the process
+     * @return CPU time minus ticket share, in time units
+     * @throws IllegalStateException If the scheduler has not run
+     */
+    public double getShareDeviation(int process) {
+        if (shareDeviation == null) {
+            throw new IllegalStateException("No share deviations: " + getClass().getSimpleName() + " has not run");
+        }
+        return shareDeviation[process];
+    }
+
+    /**
+     * Returns the mean absolute share deviation of the processes with a
+     * positive burst time.
+     *
+     * @return Mean absolute deviation, in time units
+     */
+    public double getMeanShareDeviation() {
+        return meanAbsoluteDeviation;
+    }
+
+    /**
+     * Returns the process whose share deviated the most.
+     *
+     * @return Index of the process, or -1 if no process had a positive burst time
+     */
+    public int getMaxShareDeviationProcess() {
+        return maxDeviationProcess;
+    }
+
+    @Override
+    protected void renderMetrics(ResultRenderer out) throws IOException {
+        super.renderMetrics(out);
+        if (shareDeviation == null) {
+            return; // Not run
+        }
+        out.appendf("Share deviation: mean %.2f ms", meanAbsoluteDeviation);
+        if (maxDeviationProcess != -1) {
+            out.appendf(", max %+.2f ms (%s)", shareDeviation[maxDeviationProcess],
+                    workload.pid(maxDeviationProcess));
+        }
+        out.append("\n");
+    }
+
+    private void summarizeDeviations() {
+        double total = 0;
+        int count = 0;
+        maxDeviationProcess = -1;
+        for (int i = 0; i < shareDeviation.length; i++) {
+            if (workload.BT[i] == 0) {
+                continue; // Never runnable
+            }
+            double deviation = Math.abs(shareDeviation[i]);
+            total += deviation;
+            count++;
+            if (maxDeviationProcess == -1 || deviation > Math.abs(shareDeviation[maxDeviationProcess])) {
+                maxDeviationProcess = i;
+            }
+        }
+        meanAbsoluteDeviation = count == 0 ? 0 : total / count;
+    }
+
+    private static int checkTimeQuantum(int timeQuantum) {
+        if (timeQuantum <= 0) {
+            throw new IllegalArgumentException("Proportional-share scheduling needs a positive time quantum");
+        }
+        return timeQuantum;
+    }
+}
@@ -0,0 +1,113 @@
+package Finals_OS;
+
+import java.io.IOException;
+import java.util.stream.IntStream;
+
+/**
+ * Evaluates Round Robin over a range of time quanta in parallel and reports
+ * which quantum gives the lowest average waiting time. All runs share the
+ * workload's input columns and never modify them.
+ *
+ * Every quantum at or above the largest burst time lets each process finish
+ * in one dispatch, so the schedule no longer depends on the quantum. Those
+ * quanta are evaluated once, with the largest burst time as the quantum.
+ */
+public class QuantumSweep {
+    private final Workload workload; // Shared, read-only input columns
+    private final int minQuantum; // Smallest quantum to evaluate
+    private final int maxQuantum; // Largest quantum to evaluate
+    private int collapsedQuantum; // First quantum whose schedule matches all larger ones
+    private double[] avgTurnAroundTime; // Average Turnaround Time per evaluated quantum
+    private double[] avgWaitingTime; // Average Waiting Time per evaluated quantum
+    private long[] dispatchCount; // Number of dispatches per evaluated quantum
+
+    /**
+     * Creates a sweep.
+     *
+     * @param workload   Workload to schedule
+     * @param minQuantum Smallest quantum (at least 1)
+     * @param maxQuantum Largest quantum (at least minQuantum)
+     */
+    public QuantumSweep(Workload workload, int minQuantum, int maxQuantum) {
+        if (minQuantum < 1 || maxQuantum < minQuantum) {
+            throw new IllegalArgumentException("Invalid quantum range: " + minQuantum + " to " + maxQuantum);
+        }
+        this.workload = workload;
+        this.minQuantum = minQuantum;
+        this.maxQuantum = maxQuantum;
+    }
+
+    /**
+     * Runs Round Robin for every distinct quantum in the range, in parallel.
+     */
+    public void run() {
+        int maxBurst = 1;
+        for (int i = 0; i < workload.size(); i++) {
+            maxBurst = Math.max(maxBurst, workload.BT[i]);
+        }
+        collapsedQuantum = Math.max(minQuantum, Math.min(maxQuantum, maxBurst));
+
+        int count = collapsedQuantum - minQuantum + 1;
+        avgTurnAroundTime = new double[count];
+        avgWaitingTime = new double[count];
+        dispatchCount = new long[count];
+        IntStream.range(0, count).parallel().forEach(k -> {
+            RoundRobinClass scheduler = new RoundRobinClass(workload.copy(), minQuantum + k);
+            scheduler.setGanttSink(GanttSink.NONE); // Only the metrics are needed
+            scheduler.getMetrics().setTracksPercentiles(false); // Only the averages are shown
+            scheduler.schedule();
+            avgTurnAroundTime[k] = scheduler.getAvgTurnAroundTime();
+            avgWaitingTime[k] = scheduler.getAvgWaitingTime();
+            dispatchCount[k] = scheduler.getDispatchCount();
+        });
+    }
+
+    /**
+     * Returns the quantum with the lowest average waiting time. Ties go to the
+     * smaller quantum.
+     *
+     * @return Best time quantum
+     */
+    public int getBestQuantum() {
+        int best = 0;
+        for (int k = 1; k < avgWaitingTime.length; k++) {
+            if (avgWaitingTime[k] < avgWaitingTime[best]) {
+                best = k;
+            }
+        }
+        return minQuantum + best;
+    }
+
+    /**
+     * Displays one row per quantum and marks the best one.
+     */
+    public void displayResults() {
+        try {
+            ResultRenderer out = ResultRenderer.standardOutput();
+            renderResults(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error displaying quantum sweep: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes one row per quantum to a renderer and marks the best one.
+     *
+     * @param out Renderer to write to
+     * @throws IOException If the output cannot be written
+     */
+    public void renderResults(ResultRenderer out) throws IOException {
+        int best = getBestQuantum();
+        out.appendf("\n%-12s %10s %10s %12s\n", "Quantum", "AveTAT", "AveWT", "Dispatches");
+        for (int k = 0; k < avgWaitingTime.length; k++) {
+            int quantum = minQuantum + k;
+            String label = Integer.toString(quantum);
+            if (quantum == collapsedQuantum && collapsedQuantum < maxQuantum) {
+                label += "-" + maxQuantum; // Same schedule for every larger quantum
+            }
+            out.appendf("%-12s %10.2f %10.2f %12d%s\n", label, avgTurnAroundTime[k], avgWaitingTime[k],
+                    dispatchCount[k], quantum == best ? "  <- best" : "");
+        }
+    }
+}
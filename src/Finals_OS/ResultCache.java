@@ -0,0 +1,185 @@
+package Finals_OS;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Cache of scheduling results, addressed by content: the key is the hash of the
+ * workload's input columns plus the algorithm and its time quantum. Scheduling
+ * the same inputs again restores the stored completion and response times and
+ * Gantt Chart into a fresh scheduler instead of running schedule().
+ *
+ * Algorithms whose results a cached result cannot restore in full (see
+ * Algorithm.isCacheable()) are scheduled every time and never stored.
+ *
+ * Results are kept in a least-recently-used memory tier bounded by size and,
+ * optionally, in a directory on disk, one file per key. A disk hit is also
+ * promoted into memory. All methods are thread-safe.
+ */
+public class ResultCache {
+    private static final String FILE_SUFFIX = ".result"; // Extension of the cached result files
+
+    private final long maxBytes; // Largest total size of the results kept in memory
+    private final Path directory; // Directory of the disk tier, or null for memory only
+    private final LinkedHashMap<String, ScheduleResult> memory; // Results in least-recently-used order
+    private long memoryBytes; // Total size of the results in memory
+    private long hits; // Lookups answered from memory
+    private long diskHits; // Lookups answered from disk
+    private long misses; // Lookups that had to schedule
+
+    /**
+     * Creates a cache that keeps results in memory only.
+     *
+     * @param maxBytes Largest total size of the results kept in memory
+     */
+    public ResultCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a cache that keeps results in memory and in a directory.
+     *
+     * @param maxBytes  Largest total size of the results kept in memory
+     * @param directory Directory for result files (created if missing), or null
+     *                  for memory only
+     */
+    public ResultCache(long maxBytes, Path directory) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative");
+        }
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+        this.memory = new LinkedHashMap<>(16, 0.75f, true); // Access order, eldest first
+    }
+
+    /**
+     * Returns a finished scheduler for the workload, restored from the cache if
+     * the same inputs were scheduled before, otherwise scheduled now and stored.
+     * An algorithm that is not cacheable is scheduled without using the cache.
+     *
+     * @param workload    Workload to schedule; its result columns are filled in
+     * @param algorithm   Algorithm to schedule with
+     * @param timeQuantum Time quantum, for the algorithms that use one
+     * @param recordGantt True to record (or restore) the Gantt Chart; a cached
+     *                    result without one is then not used
+     * @return Scheduler holding the results
+     * @throws IOException If the disk tier cannot be read or written
+     */
+    public SchedulingAlgorithm schedule(Workload workload, Algorithm algorithm, int timeQuantum, boolean recordGantt)
+            throws IOException {
+        SchedulingAlgorithm scheduler = algorithm.create(workload, timeQuantum);
+        if (!recordGantt) {
+            scheduler.setGanttSink(GanttSink.NONE);
+        }
+        if (!algorithm.isCacheable()) {
+            scheduler.schedule();
+            return scheduler;
+        }
+        String key = keyOf(workload, algorithm, timeQuantum);
+
+        ScheduleResult result = lookup(key, workload.size(), recordGantt);
+        if (result != null) {
+            scheduler.restore(result);
+            return scheduler;
+        }
+
+        scheduler.schedule();
+        store(key, scheduler.snapshot());
+        return scheduler;
+    }
+
+    /**
+     * Removes every result from memory. Files on disk are kept.
+     */
+    public synchronized void clear() {
+        memory.clear();
+        memoryBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getMemoryBytes() {
+        return memoryBytes;
+    }
+
+    // Key of a run: the workload hash, the algorithm and the quantum if the algorithm uses one
+    private static String keyOf(Workload workload, Algorithm algorithm, int timeQuantum) {
+        int quantum = algorithm.usesTimeQuantum() ? timeQuantum : 0;
+        return workload.contentHash() + "-" + algorithm.getCommandName() + "-" + quantum;
+    }
+
+    // Finds a usable result in memory, then on disk
+    private ScheduleResult lookup(String key, int size, boolean needsGantt) throws IOException {
+        synchronized (this) {
+            ScheduleResult result = memory.get(key);
+            if (result != null && result.size() == size && (result.hasGanttChart() || !needsGantt)) {
+                hits++;
+                return result;
+            }
+        }
+
+        Path file = fileOf(key);
+        if (file != null && Files.exists(file)) {
+            ScheduleResult result;
+            try {
+                result = ScheduleResult.read(file);
+            } catch (IOException e) {
+                result = null; // A damaged file is treated as a miss and replaced
+            }
+            if (result != null && result.size() == size && (result.hasGanttChart() || !needsGantt)) {
+                synchronized (this) {
+                    diskHits++;
+                    putInMemory(key, result);
+                }
+                return result;
+            }
+        }
+
+        synchronized (this) {
+            misses++;
+        }
+        return null;
+    }
+
+    // Keeps a new result in memory and on disk
+    private void store(String key, ScheduleResult result) throws IOException {
+        synchronized (this) {
+            putInMemory(key, result);
+        }
+        Path file = fileOf(key);
+        if (file != null) {
+            Files.createDirectories(directory);
+            result.write(file);
+        }
+    }
+
+    // Adds a result to the memory tier and evicts the least recently used results beyond the size limit
+    private void putInMemory(String key, ScheduleResult result) {
+        ScheduleResult previous = memory.put(key, result);
+        if (previous != null) {
+            memoryBytes -= previous.sizeInBytes();
+        }
+        memoryBytes += result.sizeInBytes();
+
+        Iterator<ScheduleResult> eldest = memory.values().iterator();
+        while (memoryBytes > maxBytes && eldest.hasNext()) {
+            memoryBytes -= eldest.next().sizeInBytes();
+            eldest.remove(); // Also drops a new result larger than the whole tier
+        }
+    }
+
+    private Path fileOf(String key) {
+        return directory == null ? null : directory.resolve(key + FILE_SUFFIX);
+    }
+}
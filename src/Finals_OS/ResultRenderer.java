@@ -0,0 +1,445 @@
+package Finals_OS;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats scheduling results into one reusable byte buffer and writes it to a
+ * channel in large blocks, instead of one printf per process and Gantt Chart
+ * entry. Numbers are formatted by hand, so rendering a table row does not
+ * create a Formatter.
+ *
+ * Large results can be cut down with a Mode: metrics only, the processes with
+ * the longest waiting times, or the first and last rows only.
+ *
+ * Everything printed to standard output goes through one shared renderer, so
+ * the buffer is allocated once per stream rather than once per table. Views
+ * made with withMode share their renderer's buffer. Renderers are not
+ * thread-safe; render from one thread at a time.
+ */
+public class ResultRenderer {
+    private static final int BUFFER_SIZE = 1 << 20; // Bytes formatted before each write
+
+    private static ResultRenderer standardOutputRenderer; // Shared renderer of System.out, created on first use
+
+    /** How much of the process table and Gantt Chart to show. */
+    public enum Mode {
+        /** Every process and every Gantt Chart entry. */
+        FULL("full"),
+        /** Metrics only; the table and Gantt Chart are reduced to their sizes. */
+        SUMMARY("summary"),
+        /** The processes with the longest waiting times, longest first. */
+        TOP_WAITING("top"),
+        /** The first and last rows of the table and of each Gantt Chart lane. */
+        HEAD_TAIL("head");
+
+        private final String commandName; // Name used on the command line
+
+        Mode(String commandName) {
+            this.commandName = commandName;
+        }
+
+        public String getCommandName() {
+            return commandName;
+        }
+
+        /**
+         * Looks up a mode by its command-line name (case-insensitive).
+         *
+         * @param name Command-line name, e.g. "summary" or "top"
+         * @return Matching mode
+         * @throws IllegalArgumentException If no mode has that name
+         */
+        public static Mode fromCommandName(String name) {
+            for (Mode mode : values()) {
+                if (mode.commandName.equalsIgnoreCase(name)) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown display mode: " + name);
+        }
+    }
+
+    private final WritableByteChannel channel; // Destination of the formatted output
+    private final boolean standardOutput; // True if the channel writes to System.out
+    private final ByteBuffer buffer; // Formatted output not yet written
+    private final byte[] digits; // Scratch space for formatting a number
+    private Mode mode = Mode.FULL; // How much to show
+    private int rows; // Row limit for TOP_WAITING and HEAD_TAIL
+
+    /**
+     * Creates a renderer that writes to standard output and shows everything.
+     */
+    public ResultRenderer() {
+        this(Channels.newChannel(System.out), true);
+    }
+
+    /**
+     * Creates a renderer that writes to the given channel and shows everything.
+     *
+     * @param channel Destination of the output
+     */
+    public ResultRenderer(WritableByteChannel channel) {
+        this(channel, false);
+    }
+
+    private ResultRenderer(WritableByteChannel channel, boolean standardOutput) {
+        this.channel = channel;
+        this.standardOutput = standardOutput;
+        this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        this.digits = new byte[20];
+    }
+
+    // View of another renderer: same channel and buffer, its own mode
+    private ResultRenderer(ResultRenderer shared) {
+        this.channel = shared.channel;
+        this.standardOutput = shared.standardOutput;
+        this.buffer = shared.buffer;
+        this.digits = shared.digits;
+    }
+
+    /**
+     * Returns the shared renderer of standard output, which shows everything.
+     * The display methods of the schedulers and of the metrics and statistics
+     * tables all write through it.
+     *
+     * @return Shared standard output renderer
+     */
+    public static synchronized ResultRenderer standardOutput() {
+        if (standardOutputRenderer == null) {
+            standardOutputRenderer = new ResultRenderer();
+        }
+        return standardOutputRenderer;
+    }
+
+    /**
+     * Sets how much of the results to show.
+     *
+     * @param mode How much to show
+     * @param rows For TOP_WAITING, the number of processes; for HEAD_TAIL, the
+     *             number of rows shown at each end
+     * @return This renderer
+     */
+    public ResultRenderer setMode(Mode mode, int rows) {
+        if (rows < 0) {
+            throw new IllegalArgumentException("Row limit must not be negative");
+        }
+        this.mode = mode;
+        this.rows = rows;
+        return this;
+    }
+
+    /**
+     * Returns a renderer with its own mode that writes through this renderer's
+     * channel and buffer, so output of both stays in order.
+     *
+     * @param mode How much to show
+     * @param rows Row limit, as for setMode
+     * @return New view of this renderer
+     */
+    public ResultRenderer withMode(Mode mode, int rows) {
+        return new ResultRenderer(this).setMode(mode, rows);
+    }
+
+    /**
+     * Returns true if this renderer shows individual Gantt Chart entries, so the
+     * chart is worth recording.
+     *
+     * @return True in FULL and HEAD_TAIL mode
+     */
+    public boolean showsGanttEntries() {
+        return mode == Mode.FULL || mode == Mode.HEAD_TAIL;
+    }
+
+    /**
+     * Renders the process table, the metrics and the Gantt Chart of a finished
+     * scheduler.
+     *
+     * @param scheduler Scheduler whose results to render
+     * @throws IOException If the output cannot be written
+     */
+    public void renderResults(SchedulingAlgorithm scheduler) throws IOException {
+        renderProcessTable(scheduler);
+        scheduler.renderMetrics(this);
+        scheduler.renderGanttChart(this);
+        flush();
+    }
+
+    /**
+     * Renders the metrics of a finished scheduler.
+     *
+     * @param scheduler Scheduler whose metrics to render
+     * @throws IOException If the output cannot be written
+     */
+    public void renderMetrics(SchedulingAlgorithm scheduler) throws IOException {
+        scheduler.renderMetrics(this);
+        flush();
+    }
+
+    /**
+     * Renders the Gantt Chart of a finished scheduler.
+     *
+     * @param scheduler Scheduler whose Gantt Chart to render
+     * @throws IOException If the output cannot be written
+     */
+    public void renderGanttChart(SchedulingAlgorithm scheduler) throws IOException {
+        scheduler.renderGanttChart(this);
+        flush();
+    }
+
+    /**
+     * Appends one Gantt Chart lane: a row of process labels and a row of start
+     * times ending with the given end time. In SUMMARY and TOP_WAITING mode only
+     * the number of entries is shown, and in HEAD_TAIL mode only the first and
+     * last entries.
+     *
+     * @param chart    Gantt Chart lane
+     * @param workload Workload the labels refer to
+     * @param endTime  Time printed after the last entry
+     * @throws IOException If the output cannot be written
+     */
+    public void appendGanttLane(GanttChart chart, Workload workload, int endTime) throws IOException {
+        int size = chart.size();
+        if (mode == Mode.SUMMARY || mode == Mode.TOP_WAITING) {
+            append("(").appendNumber(size).append(" entries, ending at ").appendNumber(endTime).append(")\n");
+            return;
+        }
+        boolean truncated = mode == Mode.HEAD_TAIL && size > 2 * rows;
+        int headEnd = truncated ? rows : size; // Entries shown before the gap
+        int tailStart = truncated ? size - rows : size; // First entry shown after the gap
+
+        // Process labels
+        for (int i = 0; i < size; i++) {
+            if (i == headEnd) {
+                append("| ...   ");
+                i = tailStart;
+                if (i == size) {
+                    break;
+                }
+            }
+            int label = chart.label(i);
+            append("| ").appendLeft(label == GanttSink.IDLE ? "////" : workload.pid(label), 5).append(" ");
+        }
+        append("|\n");
+
+        // Time markers
+        for (int i = 0; i < size; i++) {
+            if (i == headEnd) {
+                append("...     ");
+                i = tailStart;
+                if (i == size) {
+                    break;
+                }
+            }
+            appendLeft(chart.startTime(i), 7).append(" ");
+        }
+        appendNumber(endTime).append("\n");
+    }
+
+    /**
+     * Appends text.
+     *
+     * @param text Text to append
+     * @return This renderer
+     * @throws IOException If a full buffer cannot be written
+     */
+    public ResultRenderer append(String text) throws IOException {
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80) {
+                return appendBytes(text.substring(i).getBytes(StandardCharsets.UTF_8)); // Rare non-ASCII text
+            }
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            buffer.put((byte) c);
+        }
+        return this;
+    }
+
+    /**
+     * Appends formatted text. Meant for the few lines with decimals, not for
+     * per-process rows.
+     *
+     * @param format Format string, as for String.format
+     * @param args   Format arguments
+     * @return This renderer
+     * @throws IOException If a full buffer cannot be written
+     */
+    public ResultRenderer appendf(String format, Object... args) throws IOException {
+        return append(String.format(format, args));
+    }
+
+    /**
+     * Appends a number.
+     *
+     * @param value Number to append
+     * @return This renderer
+     * @throws IOException If a full buffer cannot be written
+     */
+    public ResultRenderer appendNumber(long value) throws IOException {
+        return appendLeft(value, 0);
+    }
+
+    /**
+     * Appends a number, padded with spaces on the right to the given width (like
+     * "%-5d").
+     *
+     * @param value Number to append
+     * @param width Minimum width
+     * @return This renderer
+     * @throws IOException If a full buffer cannot be written
+     */
+    public ResultRenderer appendLeft(long value, int width) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            return appendLeft(Long.toString(value), width);
+        }
+        int length = 0;
+        long rest = Math.abs(value);
+        do {
+            digits[digits.length - 1 - length++] = (byte) ('0' + rest % 10);
+            rest /= 10;
+        } while (rest != 0);
+        if (value < 0) {
+            digits[digits.length - 1 - length++] = '-';
+        }
+        ensureRoom(Math.max(length, width));
+        buffer.put(digits, digits.length - length, length);
+        for (int i = length; i < width; i++) {
+            buffer.put((byte) ' ');
+        }
+        return this;
+    }
+
+    /**
+     * Appends text, padded with spaces on the right to the given width (like
+     * "%-5s").
+     *
+     * @param text  Text to append
+     * @param width Minimum width
+     * @return This renderer
+     * @throws IOException If a full buffer cannot be written
+     */
+    public ResultRenderer appendLeft(String text, int width) throws IOException {
+        append(text);
+        for (int i = text.length(); i < width; i++) {
+            append(" ");
+        }
+        return this;
+    }
+
+    /**
+     * Writes everything formatted so far to the channel.
+     *
+     * @throws IOException If the output cannot be written
+     */
+    public void flush() throws IOException {
+        writeBuffer();
+        if (standardOutput) {
+            System.out.flush();
+        }
+    }
+
+    // Appends the process table according to the mode
+    private void renderProcessTable(SchedulingAlgorithm scheduler) throws IOException {
+        Workload workload = scheduler.workload;
+        int n = workload.size();
+        boolean priority = scheduler.showsPriority();
+        if (mode == Mode.SUMMARY) {
+            append("\n").appendNumber(n).append(" processes\n");
+            return;
+        }
+
+        append(priority ? "\nP\tPriority\tAT\tBT\tCT\tTAT\tWT\n" : "\nP\tAT\tBT\tCT\tTAT\tWT\n");
+        if (mode == Mode.TOP_WAITING) {
+            for (int i : longestWaiting(workload, rows)) {
+                appendRow(workload, i, priority);
+            }
+            if (n > rows) {
+                append("(").appendNumber(rows).append(" of ").appendNumber(n)
+                        .append(" processes, longest waiting time first)\n");
+            }
+        } else if (mode == Mode.HEAD_TAIL && n > 2 * rows) {
+            for (int i = 0; i < rows; i++) {
+                appendRow(workload, i, priority);
+            }
+            append("... ").appendNumber(n - 2 * rows).append(" more processes ...\n");
+            for (int i = n - rows; i < n; i++) {
+                appendRow(workload, i, priority);
+            }
+        } else {
+            for (int i = 0; i < n; i++) {
+                appendRow(workload, i, priority);
+            }
+        }
+    }
+
+    // Appends one table row, matching the "%-2s\t%-2d\t%-2d\t%-3d\t%-3d\t%-3d" layout
+    private void appendRow(Workload workload, int i, boolean priority) throws IOException {
+        appendLeft(workload.pid(i), 2).append("\t");
+        if (priority) {
+            appendLeft(workload.priority[i], 8).append("\t");
+        }
+        appendLeft(workload.AT[i], 2).append("\t");
+        appendLeft(workload.BT[i], 2).append("\t");
+        appendLeft(workload.completionTime[i], 3).append("\t");
+        appendLeft(workload.turnAroundTime[i], 3).append("\t");
+        appendLeft(workload.waitingTime[i], 3).append("\n");
+    }
+
+    // Indices of the k processes with the longest waiting times, longest first (ties by index)
+    private static int[] longestWaiting(Workload workload, int k) {
+        int n = workload.size();
+        k = Math.min(k, n);
+        if (k == 0) {
+            return new int[0];
+        }
+        // Min-heap of the best k so far. The key puts the waiting time in the high bits
+        // and the inverted index in the low bits, so a lower index wins a tie.
+        ProcessHeap best = new ProcessHeap(k);
+        for (int i = 0; i < n; i++) {
+            long key = ((long) workload.waitingTime[i] << 32) | (~i & 0xFFFFFFFFL);
+            if (best.size() < k) {
+                best.offer(i, key);
+            } else if (key > best.peekKey()) {
+                best.poll();
+                best.offer(i, key);
+            }
+        }
+        int[] result = new int[k];
+        for (int j = k - 1; j >= 0; j--) {
+            result[j] = best.poll(); // Smallest first, so fill from the back
+        }
+        return result;
+    }
+
+    private ResultRenderer appendBytes(byte[] bytes) throws IOException {
+        for (int offset = 0; offset < bytes.length;) {
+            if (!buffer.hasRemaining()) {
+                writeBuffer();
+            }
+            int count = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, count);
+            offset += count;
+        }
+        return this;
+    }
+
+    private void ensureRoom(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            writeBuffer();
+        }
+    }
+
+    private void writeBuffer() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
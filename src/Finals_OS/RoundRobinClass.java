@@ -1,74 +1,146 @@
 package Finals_OS;
 
-import java.util.*;
-
 public class RoundRobinClass extends SchedulingAlgorithm {
 
     private int timeQuantum; // Time quantum for the Round Robin scheduling algorithm
+    private long dispatchCount; // Number of times a process was given the CPU in the last run
+    private CheckpointSupport checkpointSupport; // Checkpoints of the event loop, created on first use
 
     public RoundRobinClass(Process[] processes, int timeQuantum) {
         super(processes); // Initialize the base class with the list of processes
         this.timeQuantum = timeQuantum; // Set the time quantum
     }
 
+    public RoundRobinClass(Workload workload, int timeQuantum) {
+        super(workload); // Initialize the base class with the workload
+        this.timeQuantum = timeQuantum; // Set the time quantum
+    }
+
+    @Override
+    CheckpointSupport checkpointSupport() {
+        if (checkpointSupport == null) {
+            checkpointSupport = new CheckpointSupport(this, timeQuantum); // Only resumed with the same quantum
+        }
+        return checkpointSupport;
+    }
+
+    @Override
+    protected long resultCounter() {
+        return dispatchCount;
+    }
+
+    @Override
+    protected void restoreResultCounter(long counter) {
+        dispatchCount = counter; // getDispatchCount() matches the cached run
+    }
+
     @Override
     public void schedule() {
         try {
+            CheckpointSupport checkpoints = checkpointSupport(); // Writes, keeps or resumes from checkpoints
             // Array to keep track of remaining burst time for each process
-            int[] remainingTime = new int[processes.length];
-            for (int i = 0; i < processes.length; i++) {
-                remainingTime[i] = processes[i].BT; // Initialize remaining time with burst time
+            int[] remainingTime = new int[workload.size()];
+            for (int i = 0; i < workload.size(); i++) {
+                remainingTime[i] = workload.BT[i]; // Initialize remaining time with burst time
             }
 
-            Queue<Integer> readyQueue = new LinkedList<>(); // Queue to manage ready processes
-            boolean[] inQueue = new boolean[processes.length]; // Tracks if a process is in the ready queue
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            IntRingQueue readyQueue = new IntRingQueue(workload.size()); // Queue to manage ready processes
+            int preempted = -1; // Process to re-queue after its time quantum expired
             int completed = 0; // Counter for completed processes
-            currentTime = findMinArrivalTime(); // Start time is the earliest arrival time
-
-            // Check for initial idle time before the first process arrives
-            if (currentTime > 0) {
-                addIdleTimeToGanttChart(0, currentTime); // Add idle time to the Gantt Chart
+            dispatchCount = 0;
+
+            SchedulerCheckpoint resume = checkpoints.takeResumeState();
+            if (resume != null) {
+                // Continue from a checkpoint; the current time and results so far are already restored
+                remainingTime = resume.remainingTime;
+                nextArrival = resume.nextArrival;
+                for (int i : resume.readyIndex) {
+                    readyQueue.offer(i);
+                }
+                preempted = resume.running;
+                completed = resume.completed;
+                dispatchCount = resume.counter;
+            } else {
+                currentTime = workload.AT[order[0]]; // Start time is the earliest arrival time
+
+                // Check for initial idle time before the first process arrives
+                if (currentTime > 0) {
+                    addIdleTimeToGanttChart(0, currentTime); // Add idle time to the Gantt Chart
+                }
             }
 
-            while (completed < processes.length) { // Loop until all processes are completed
+            while (completed < workload.size()) { // Loop until all processes are completed
+                if (checkpoints.checkpointDue()) {
+                    SchedulerCheckpoint checkpoint = checkpoints.newCheckpoint(order, nextArrival, completed,
+                            remainingTime);
+                    checkpoint.readyIndex = readyQueue.toArray();
+                    checkpoint.running = preempted;
+                    checkpoint.counter = dispatchCount;
+                    checkpoints.writeCheckpoint(checkpoint);
+                }
+
                 // Add processes that have arrived to the ready queue
-                for (int i = 0; i < processes.length; i++) {
-                    if (processes[i].AT <= currentTime && remainingTime[i] > 0 && !inQueue[i]) {
+                while (nextArrival < order.length && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
                         readyQueue.offer(i); // Add process index to the queue
-                        inQueue[i] = true; // Mark process as in the queue
+                    } else {
+                        // A zero-length burst finishes on arrival
+                        recordCompletion(i, workload.AT[i]);
+                        workload.turnAroundTime[i] = 0;
+                        workload.waitingTime[i] = 0;
+                        completed++;
                     }
                 }
 
+                // The preempted process goes behind the processes that arrived during its quantum
+                if (preempted != -1) {
+                    readyQueue.offer(preempted);
+                    preempted = -1;
+                }
+
                 if (readyQueue.isEmpty()) {
+                    if (completed == workload.size()) {
+                        break; // The last arrivals had zero-length bursts
+                    }
                     // If no process is ready, move time forward to the next arrival time
-                    int nextArrivalTime = findNextArrivalTime(currentTime);
+                    int nextArrivalTime = workload.AT[order[nextArrival]];
                     addIdleTimeToGanttChart(currentTime, nextArrivalTime); // Add idle time to Gantt Chart
                     currentTime = nextArrivalTime; // Update the current time
+                    long rejoined = checkpoints.idleUntilArrival(nextArrival, dispatchCount);
+                    if (rejoined >= 0) {
+                        dispatchCount = rejoined; // A replay rejoined the previous run, which has the rest of the results
+                        break;
+                    }
                     continue;
                 }
 
                 // Get the next process from the ready queue
+                long selection = startSelection(readyQueue.size());
                 int currentProcessIndex = readyQueue.poll();
-                inQueue[currentProcessIndex] = false; // Mark process as not in the queue
+                endSelection(selection);
+                dispatchCount++;
+                recordDispatch(currentProcessIndex, currentTime);
 
                 // Execute the process for the time quantum or remaining time, whichever is smaller
                 int executionTime = Math.min(timeQuantum, remainingTime[currentProcessIndex]);
-                addToGanttChart(processes[currentProcessIndex].pid, currentTime, currentTime + executionTime);
+                addToGanttChart(currentProcessIndex, currentTime, currentTime + executionTime);
                 currentTime += executionTime; // Update current time
                 remainingTime[currentProcessIndex] -= executionTime; // Decrease the remaining time for the process
 
                 if (remainingTime[currentProcessIndex] == 0) {
                     // If the process is completed
-                    processes[currentProcessIndex].completionTime = currentTime; // Set completion time
-                    processes[currentProcessIndex].turnAroundTime = processes[currentProcessIndex].completionTime
-                            - processes[currentProcessIndex].AT; // Calculate turnaround time
-                    processes[currentProcessIndex].waitingTime = processes[currentProcessIndex].turnAroundTime
-                            - processes[currentProcessIndex].BT; // Calculate waiting time
+                    recordCompletion(currentProcessIndex, currentTime); // Set completion time
+                    workload.turnAroundTime[currentProcessIndex] = workload.completionTime[currentProcessIndex]
+                            - workload.AT[currentProcessIndex]; // Calculate turnaround time
+                    workload.waitingTime[currentProcessIndex] = workload.turnAroundTime[currentProcessIndex]
+                            - workload.BT[currentProcessIndex]; // Calculate waiting time
                     completed++; // Increment the completed process count
                 } else {
-                    // If the process is not completed, re-add it to the ready queue
-                    readyQueue.offer(currentProcessIndex);
-                    inQueue[currentProcessIndex] = true;
+                    // If the process is not completed, re-add it to the ready queue after any new arrivals
+                    preempted = currentProcessIndex;
                 }
             }
         calculateMetrics(); // Calculate the average metrics and CPU utilization
@@ -79,51 +151,12 @@ public class RoundRobinClass extends SchedulingAlgorithm {
         }
     }
 
-    // Find the minimum arrival time of all processes
-    private int findMinArrivalTime() {
-        int minArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT < minArrivalTime) {
-                minArrivalTime = p.AT;
-            }
-        }
-        return minArrivalTime;
-    }
-
-    // Find the next arrival time after the current time
-    private int findNextArrivalTime(int currentTime) {
-        int nextArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT > currentTime && p.AT < nextArrivalTime) {
-                nextArrivalTime = p.AT;
-            }
-        }
-        return nextArrivalTime;
-    }
-
-    @Override
-    public void displayResults() {
-        try {
-            // Display table header
-            System.out.println("\nP\tAT\tBT\tCT\tTAT\tWT");
-            char processID = 'A'; // Start with process ID 'A'
-            for (Process p : processes) {
-                // Print details of each process
-                System.out.printf("%-2s\t%-2d\t%-2d\t%-3d\t%-3d\t%-3d\n",
-                        processID, p.AT, p.BT, p.completionTime,
-                        p.turnAroundTime, p.waitingTime);
-                processID++; // Move to the next process ID
-            }
-
-            // Display calculated averages and CPU utilization
-            System.out.printf("\nAveTAT: %.2f ms\n", avgTurnAroundTime);
-            System.out.printf("AveWT: %.2f ms\n", avgWaitingTime);
-            System.out.printf("CPU Util: %.2f%%\n", cpuUtilization);
-            displayGanttChart(); // Display the Gantt Chart
-        } catch (Exception e) {
-            // Handle any errors during result display
-            System.err.println("Error displaying results: " + e.getMessage());
-            e.printStackTrace();
-        }
+    /**
+     * Returns how many times a process was given the CPU in the last run.
+     *
+     * @return Number of dispatches
+     */
+    public long getDispatchCount() {
+        return dispatchCount;
     }
-}
\ No newline at end of file
+}
@@ -7,46 +7,49 @@ public class SJFSClass extends SchedulingAlgorithm {
         super(processes);
     }
 
+    // Constructor to initialize the SJFSClass with a columnar workload
+    public SJFSClass(Workload workload) {
+        super(workload);
+    }
+
     @Override
     public void schedule() {
         try {
             int completed = 0; // Number of completed processes
-            boolean[] isCompleted = new boolean[processes.length]; // Array to track completed processes
-            currentTime = findMinArrivalTime(); // Initialize current time to the minimum arrival time
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            ProcessHeap readyQueue = new ProcessHeap(workload.size()); // Ready processes keyed by burst time
+
+            currentTime = workload.AT[order[0]]; // Initialize current time to the minimum arrival time
 
             // Check for initial idle time
             if (currentTime > 0) {
                 addIdleTimeToGanttChart(0, currentTime); // Add initial idle time to Gantt chart
             }
 
-            while (completed < processes.length) {
-                int minBurstIndex = -1; // Index of the process with the minimum burst time
-                int minBurst = Integer.MAX_VALUE; // Minimum burst time
-
-                // Find the process with the minimum burst time that has arrived
-                for (int i = 0; i < processes.length; i++) {
-                    if (!isCompleted[i] && processes[i].AT <= currentTime) {
-                        if (processes[i].BT < minBurst) {
-                            minBurst = processes[i].BT;
-                            minBurstIndex = i;
-                        }
-                    }
+            while (completed < workload.size()) {
+                // Admit every process that has arrived by the current time
+                while (nextArrival < order.length && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    readyQueue.offer(i, workload.BT[i]);
                 }
 
-                if (minBurstIndex == -1) {
-                    // If no process is ready, increment currentTime and add idle time
-                    int nextArrivalTime = findNextArrivalTime(currentTime); // Find the next arrival time
+                if (readyQueue.isEmpty()) {
+                    // If no process is ready, jump to the next arrival and add idle time
+                    int nextArrivalTime = workload.AT[order[nextArrival]]; // Find the next arrival time
                     addIdleTimeToGanttChart(currentTime, nextArrivalTime); // Add idle time to Gantt chart
                     currentTime = nextArrivalTime; // Update current time
                     continue;
                 }
 
-                // Process the selected process
-                Process p = processes[minBurstIndex];
-                ganttChart.add(new GanttChart(p.pid, currentTime, currentTime + p.BT)); // Add to Gantt chart
-                currentTime += p.BT; // Update current time
-                p.completionTime = currentTime; // Set completion time
-                isCompleted[minBurstIndex] = true; // Mark process as completed
+                // Process the ready process with the minimum burst time
+                long selection = startSelection(readyQueue.size());
+                int i = readyQueue.poll();
+                endSelection(selection);
+                recordDispatch(i, currentTime);
+                addToGanttChart(i, currentTime, currentTime + workload.BT[i]); // Add to Gantt chart
+                currentTime += workload.BT[i]; // Update current time
+                recordCompletion(i, currentTime); // Set completion time
                 completed++; // Increment completed count
             }
 
@@ -56,26 +59,4 @@ public class SJFSClass extends SchedulingAlgorithm {
             e.printStackTrace();
         }
     }
-
-    // Find the minimum arrival time among all processes
-    private int findMinArrivalTime() {
-        int minArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT < minArrivalTime) {
-                minArrivalTime = p.AT;
-            }
-        }
-        return minArrivalTime;
-    }
-
-    // Find the next arrival time after the current time
-    private int findNextArrivalTime(int currentTime) {
-        int nextArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT > currentTime && p.AT < nextArrivalTime) {
-                nextArrivalTime = p.AT;
-            }
-        }
-        return nextArrivalTime;
-    }
-}
\ No newline at end of file
+}
@@ -1,66 +1,111 @@
 package Finals_OS;
 
 public class SRTFClass extends SchedulingAlgorithm {
+    private CheckpointSupport checkpointSupport; // Checkpoints of the event loop, created on first use
 
     public SRTFClass(Process[] processes) {
         super(processes);
     }
 
+    public SRTFClass(Workload workload) {
+        super(workload);
+    }
+
+    @Override
+    CheckpointSupport checkpointSupport() {
+        if (checkpointSupport == null) {
+            checkpointSupport = new CheckpointSupport(this, 0);
+        }
+        return checkpointSupport;
+    }
+
     @Override
     public void schedule() {
         try {
+            CheckpointSupport checkpoints = checkpointSupport(); // Writes, keeps or resumes from checkpoints
             int completed = 0; // Number of completed processes
-            int[] remainingTime = new int[processes.length]; // Array to track remaining burst time for each process
-            for (int i = 0; i < processes.length; i++) {
-                remainingTime[i] = processes[i].BT; // Initialize remaining time with burst time
+            int[] remainingTime = new int[workload.size()]; // Array to track remaining burst time for each process
+            for (int i = 0; i < workload.size(); i++) {
+                remainingTime[i] = workload.BT[i]; // Initialize remaining time with burst time
             }
 
-            currentTime = findMinArrivalTime(); // Initialize current time to the minimum arrival time
-            int prevProcess = -1; // Track the previous process
+            int[] order = workload.arrivalOrder(); // Process indices sorted by arrival time
+            int nextArrival = 0; // Position in order of the next process to arrive
+            ProcessHeap readyQueue; // Ready processes keyed by remaining time
 
-            // Check for initial idle time
-            if (currentTime > 0) {
-                addIdleTimeToGanttChart(0, currentTime); // Add initial idle time to Gantt chart
+            SchedulerCheckpoint resume = checkpoints.takeResumeState();
+            if (resume != null) {
+                // Continue from a checkpoint; the current time and results so far are already restored
+                completed = resume.completed;
+                remainingTime = resume.remainingTime;
+                nextArrival = resume.nextArrival;
+                readyQueue = ProcessHeap.restore(resume.readyIndex, resume.readyKey, workload.size());
+            } else {
+                readyQueue = new ProcessHeap(workload.size());
+                currentTime = workload.AT[order[0]]; // Initialize current time to the minimum arrival time
+
+                // Check for initial idle time
+                if (currentTime > 0) {
+                    addIdleTimeToGanttChart(0, currentTime); // Add initial idle time to Gantt chart
+                }
             }
 
-            while (completed < processes.length) {
-                int minRemainingIndex = -1; // Index of the process with the minimum remaining time
-                int minRemaining = Integer.MAX_VALUE; // Minimum remaining time
+            while (completed < workload.size()) {
+                if (checkpoints.checkpointDue()) {
+                    SchedulerCheckpoint checkpoint = checkpoints.newCheckpoint(order, nextArrival, completed,
+                            remainingTime);
+                    checkpoint.readyIndex = readyQueue.indices();
+                    checkpoint.readyKey = readyQueue.keys();
+                    checkpoints.writeCheckpoint(checkpoint);
+                }
 
-                // Find the process with the minimum remaining time that has arrived
-                for (int i = 0; i < processes.length; i++) {
-                    if (remainingTime[i] > 0 && processes[i].AT <= currentTime) {
-                        if (remainingTime[i] < minRemaining) {
-                            minRemaining = remainingTime[i];
-                            minRemainingIndex = i;
-                        }
+                // Admit every process that has arrived by the current time
+                while (nextArrival < order.length && workload.AT[order[nextArrival]] <= currentTime) {
+                    int i = order[nextArrival++];
+                    if (remainingTime[i] > 0) {
+                        readyQueue.offer(i, remainingTime[i]);
+                    } else {
+                        recordCompletion(i, workload.AT[i]); // Zero-length burst finishes on arrival
+                        completed++;
                     }
                 }
 
-                if (minRemainingIndex == -1) {
-                    // If no process is ready, increment currentTime and add idle time
-                    int nextArrivalTime = findNextArrivalTime(currentTime); // Find the next arrival time
+                if (readyQueue.isEmpty()) {
+                    if (completed == workload.size()) {
+                        break; // The last arrivals had zero-length bursts
+                    }
+                    // If no process is ready, jump to the next arrival and add idle time
+                    int nextArrivalTime = workload.AT[order[nextArrival]]; // Find the next arrival time
                     addIdleTimeToGanttChart(currentTime, nextArrivalTime); // Add idle time to Gantt chart
                     currentTime = nextArrivalTime; // Update current time
+                    if (checkpoints.idleUntilArrival(nextArrival, 0) >= 0) {
+                        break; // A replay rejoined the previous run, which has the rest of the results
+                    }
                     continue;
                 }
 
-                // Process the selected process
-                Process p = processes[minRemainingIndex];
-                if (prevProcess != minRemainingIndex) {
-                    ganttChart.add(new GanttChart(p.pid, currentTime, currentTime + 1)); // Add to Gantt chart
-                } else {
-                    ganttChart.get(ganttChart.size() - 1).endTime++; // Extend the current Gantt chart entry
+                // The process with the minimum remaining time runs until it completes or the
+                // next process arrives, whichever comes first
+                long selection = startSelection(readyQueue.size());
+                int minRemainingIndex = readyQueue.peek();
+                endSelection(selection);
+                int runUntil = currentTime + remainingTime[minRemainingIndex];
+                if (nextArrival < order.length && workload.AT[order[nextArrival]] < runUntil) {
+                    runUntil = workload.AT[order[nextArrival]];
                 }
-                remainingTime[minRemainingIndex]--; // Decrement remaining time
-                currentTime++; // Increment current time
+
+                recordDispatch(minRemainingIndex, currentTime); // Ignored if it was already running
+                addToGanttChart(minRemainingIndex, currentTime, runUntil); // Add to Gantt chart (merged if continuing)
+                remainingTime[minRemainingIndex] -= runUntil - currentTime; // Decrease remaining time
+                currentTime = runUntil; // Jump to the next event
 
                 if (remainingTime[minRemainingIndex] == 0) {
-                    p.completionTime = currentTime; // Set completion time
+                    readyQueue.poll(); // Remove the finished process
+                    recordCompletion(minRemainingIndex, currentTime); // Set completion time
                     completed++; // Increment completed count
+                } else {
+                    readyQueue.replaceTopKey(remainingTime[minRemainingIndex]); // Still the minimum; update its key
                 }
-
-                prevProcess = minRemainingIndex; // Update previous process
             }
 
             calculateMetrics(); // Calculate metrics after scheduling
@@ -69,26 +114,4 @@ public class SRTFClass extends SchedulingAlgorithm {
             e.printStackTrace();
         }
     }
-
-    // Find the minimum arrival time among all processes
-    private int findMinArrivalTime() {
-        int minArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT < minArrivalTime) {
-                minArrivalTime = p.AT;
-            }
-        }
-        return minArrivalTime;
-    }
-
-    // Find the next arrival time after the current time
-    private int findNextArrivalTime(int currentTime) {
-        int nextArrivalTime = Integer.MAX_VALUE;
-        for (Process p : processes) {
-            if (p.AT > currentTime && p.AT < nextArrivalTime) {
-                nextArrivalTime = p.AT;
-            }
-        }
-        return nextArrivalTime;
-    }
-}
\ No newline at end of file
+}
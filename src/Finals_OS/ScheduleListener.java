@@ -0,0 +1,38 @@
+package Finals_OS;
+
+/**
+ * Receives the decisions of an OnlineScheduler as they happen. All methods do
+ * nothing by default, so a listener only overrides the events it needs.
+ */
+public interface ScheduleListener {
+
+    /**
+     * A process was given the CPU.
+     *
+     * @param time      Time of the dispatch
+     * @param processId ID of the process
+     */
+    default void onDispatch(long time, long processId) {
+    }
+
+    /**
+     * A running process lost the CPU before finishing.
+     *
+     * @param time      Time of the preemption
+     * @param processId ID of the process
+     */
+    default void onPreempt(long time, long processId) {
+    }
+
+    /**
+     * A process finished. The scheduler forgets the process after this call.
+     *
+     * @param time              Completion time
+     * @param processId         ID of the process
+     * @param arrivalTime       Arrival time of the process
+     * @param burstTime         Burst time of the process
+     * @param firstDispatchTime Time the process first got the CPU
+     */
+    default void onComplete(long time, long processId, long arrivalTime, int burstTime, long firstDispatchTime) {
+    }
+}
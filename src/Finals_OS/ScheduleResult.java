@@ -0,0 +1,146 @@
+package Finals_OS;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+
+/**
+ * Immutable copy of what a finished scheduling run produced: the completion
+ * and response time of each process, the end time, the dispatch counts, the
+ * scheduler's own counter (such as Round Robin's dispatch count) and, if it
+ * was recorded, the Gantt Chart. Everything else (turnaround and waiting
+ * times, averages, latency percentiles) is derived from these again when the
+ * result is restored into a scheduler.
+ *
+ * Binary file format (little-endian): the magic number "CPUR", a format version
+ * (2), the process count n, the end time, the number of Gantt Chart segments
+ * (-1 if none was recorded), the dispatch count, context switch count and
+ * scheduler counter as 64-bit integers, then the completion time and response time columns and the Gantt
+ * Chart label, start time and end time columns, each as 32-bit integers.
+ */
+final class ScheduleResult {
+    private static final int MAGIC = 0x52555043; // "CPUR" read as a little-endian int
+    private static final int VERSION = 2; // Binary format version
+    private static final int HEADER_BYTES = 44; // Magic, version, count, end time, segments and three counters
+
+    final int[] completionTime; // Completion Time of each process
+    final int[] responseTime; // Response Time of each process
+    final int endTime; // Time the last process completed
+    final long dispatches; // Number of times a process was given the CPU
+    final long contextSwitches; // Dispatches of a different process than the one before
+    final long counter; // Scheduler-specific counter, see SchedulingAlgorithm.resultCounter()
+    final int[] ganttLabel; // Process index of each Gantt Chart segment, or null if not recorded
+    final int[] ganttStart; // Start time of each segment, or null
+    final int[] ganttEnd; // End time of each segment, or null
+
+    ScheduleResult(int[] completionTime, int[] responseTime, int endTime, long dispatches, long contextSwitches,
+            long counter, int[] ganttLabel, int[] ganttStart, int[] ganttEnd) {
+        this.completionTime = completionTime;
+        this.responseTime = responseTime;
+        this.endTime = endTime;
+        this.dispatches = dispatches;
+        this.contextSwitches = contextSwitches;
+        this.counter = counter;
+        this.ganttLabel = ganttLabel;
+        this.ganttStart = ganttStart;
+        this.ganttEnd = ganttEnd;
+    }
+
+    int size() {
+        return completionTime.length;
+    }
+
+    boolean hasGanttChart() {
+        return ganttLabel != null;
+    }
+
+    // Approximate memory held by this result
+    long sizeInBytes() {
+        return 64 + 8L * completionTime.length + (hasGanttChart() ? 12L * ganttLabel.length : 0);
+    }
+
+    /**
+     * Writes this result to a file. The file is written to a new temporary file
+     * in the same directory and then moved into place, so readers never see a
+     * partial file and concurrent writers never share a temporary file.
+     *
+     * @param file File to create or replace
+     * @throws IOException If the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        int n = size();
+        int segments = hasGanttChart() ? ganttLabel.length : -1;
+        Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName() + ".", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION).putInt(n).putInt(endTime)
+                        .putInt(segments).putLong(dispatches).putLong(contextSwitches).putLong(counter);
+
+                long offset = HEADER_BYTES;
+                int[][] columns = hasGanttChart()
+                        ? new int[][] { completionTime, responseTime, ganttLabel, ganttStart, ganttEnd }
+                        : new int[][] { completionTime, responseTime };
+                for (int[] column : columns) {
+                    WorkloadLoader.transferColumn(channel, FileChannel.MapMode.READ_WRITE, offset, column);
+                    offset += 4L * column.length;
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary); // Only left behind if writing or moving failed
+        }
+    }
+
+    /**
+     * Reads a result written by write().
+     *
+     * @param file File to read
+     * @return Result stored in the file
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    static ScheduleResult read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Cached result is missing its header");
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a cached result file");
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported cached result version: " + version);
+            }
+            int n = header.getInt();
+            int endTime = header.getInt();
+            int segments = header.getInt();
+            long dispatches = header.getLong();
+            long contextSwitches = header.getLong();
+            long counter = header.getLong();
+            if (n < 0 || segments < -1
+                    || channel.size() < HEADER_BYTES + 8L * n + 12L * Math.max(0, segments)) {
+                throw new IOException("Cached result is truncated");
+            }
+
+            int[] completionTime = new int[n];
+            int[] responseTime = new int[n];
+            int[] ganttLabel = segments >= 0 ? new int[segments] : null;
+            int[] ganttStart = segments >= 0 ? new int[segments] : null;
+            int[] ganttEnd = segments >= 0 ? new int[segments] : null;
+            long offset = HEADER_BYTES;
+            int[][] columns = segments >= 0
+                    ? new int[][] { completionTime, responseTime, ganttLabel, ganttStart, ganttEnd }
+                    : new int[][] { completionTime, responseTime };
+            for (int[] column : columns) {
+                WorkloadLoader.transferColumn(channel, FileChannel.MapMode.READ_ONLY, offset, column);
+                offset += 4L * column.length;
+            }
+            return new ScheduleResult(completionTime, responseTime, endTime, dispatches, contextSwitches, counter,
+                    ganttLabel, ganttStart, ganttEnd);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package Finals_OS;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Full state of a scheduling run at the top of its event loop, so that a run
+ * that was stopped can continue where the checkpoint was taken and produce
+ * exactly the same results as an uninterrupted run.
+ *
+ * CheckpointSupport fills in the scheduler's own state (results so far,
+ * dispatch tracking, the Gantt Chart written so far); the scheduler fills in
+ * its loop state (time, arrival cursor, remaining times and ready queue).
+ *
+ * IncrementalScheduler keeps checkpoints in memory in a compact form instead:
+ * only the processes that have arrived but not completed are stored, and the
+ * Gantt Chart is remembered by its length. Everything else is rebuilt from the
+ * workload, whose results before the checkpoint are still those of the run.
+ *
+ * Binary file format (little-endian): the magic number "CPUK", a format
+ * version (1), then the fields in declaration order. Strings are written as a
+ * length and UTF-8 bytes, arrays as a length (-1 for null) and their elements.
+ */
+final class SchedulerCheckpoint implements Cloneable {
+    private static final int MAGIC = 0x4B555043; // "CPUK" read as a little-endian int
+    private static final int VERSION = 1; // Binary format version
+    private static final int BUFFER_SIZE = 1 << 20; // Bytes transferred per channel read or write
+
+    // Identity of the run, checked when resuming
+    String algorithm; // Name of the scheduler class
+    String workloadHash; // Workload.contentHash() of the workload
+    int parameter; // Time quantum or other setting that changes the schedule
+
+    // Scheduler loop state
+    int currentTime; // Simulation time
+    int nextArrival; // Position in arrival order of the next process to arrive
+    int completed; // Number of completed processes
+    int running; // Process held over to the next iteration (e.g. to be re-queued), or -1
+    long counter; // Scheduler-specific counter
+    int[] remainingTime; // Remaining burst time of each process
+    int[] readyIndex; // Ready queue contents, in the queue's own order
+    long[] readyKey; // Keys of the ready queue contents, or null for a FIFO queue
+
+    // Results so far
+    long[] completedFlags; // Bit set of the completed processes
+    int[] completionTime; // Completion Time of each completed process
+    int[] responseTime; // Response Time of each dispatched process, -1 otherwise
+
+    // Dispatch tracking
+    int lastDispatched; // Process holding the CPU, or -1
+    long dispatches; // Dispatches counted by the metrics
+    long contextSwitches; // Context switches counted by the metrics
+    long lastDispatchedId; // Last process the metrics saw dispatched
+
+    // Gantt Chart
+    boolean hasPending; // True if a segment was not yet passed to the sink
+    int pendingLabel; // Label of the pending segment
+    int pendingStart; // Start time of the pending segment
+    int pendingEnd; // End time of the pending segment
+    int[] ganttLabel; // Segments already in the in-memory Gantt Chart, or null
+    int[] ganttStart;
+    int[] ganttEnd;
+
+    // Compact form kept in memory (never written to a file)
+    int[] activeIndex; // Processes that have arrived but not completed, or null for the full form
+    int[] activeRemaining; // Remaining burst time of each of them
+    int[] activeResponse; // Response Time of each of them, -1 if not yet dispatched
+    int ganttSegments = -1; // Segments in the in-memory Gantt Chart, or -1 without one
+    boolean idle; // Taken when the CPU went idle until the next arrival
+
+    /**
+     * Writes the checkpoint under a temporary name and moves it into place, so a
+     * run stopped while writing leaves the previous checkpoint intact.
+     *
+     * @param file File to create or replace
+     * @throws IOException If the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putString(algorithm);
+            out.putString(workloadHash);
+            out.putInt(parameter);
+
+            out.putInt(currentTime);
+            out.putInt(nextArrival);
+            out.putInt(completed);
+            out.putInt(running);
+            out.putLong(counter);
+            out.putInts(remainingTime);
+            out.putInts(readyIndex);
+            out.putLongs(readyKey);
+
+            out.putLongs(completedFlags);
+            out.putInts(completionTime);
+            out.putInts(responseTime);
+
+            out.putInt(lastDispatched);
+            out.putLong(dispatches);
+            out.putLong(contextSwitches);
+            out.putLong(lastDispatchedId);
+
+            out.putInt(hasPending ? 1 : 0);
+            out.putInt(pendingLabel);
+            out.putInt(pendingStart);
+            out.putInt(pendingEnd);
+            out.putInts(ganttLabel);
+            out.putInts(ganttStart);
+            out.putInts(ganttEnd);
+            out.flush();
+            channel.force(false); // On disk before it replaces the previous checkpoint
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a checkpoint written by write().
+     *
+     * @param file File to read
+     * @return Checkpoint stored in the file
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    static SchedulerCheckpoint read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Input in = new Input(channel);
+            if (in.getInt() != MAGIC) {
+                throw new IOException("Not a checkpoint file");
+            }
+            int version = in.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version: " + version);
+            }
+            SchedulerCheckpoint checkpoint = new SchedulerCheckpoint();
+            checkpoint.algorithm = in.getString();
+            checkpoint.workloadHash = in.getString();
+            checkpoint.parameter = in.getInt();
+
+            checkpoint.currentTime = in.getInt();
+            checkpoint.nextArrival = in.getInt();
+            checkpoint.completed = in.getInt();
+            checkpoint.running = in.getInt();
+            checkpoint.counter = in.getLong();
+            checkpoint.remainingTime = in.getInts();
+            checkpoint.readyIndex = in.getInts();
+            checkpoint.readyKey = in.getLongs();
+
+            checkpoint.completedFlags = in.getLongs();
+            checkpoint.completionTime = in.getInts();
+            checkpoint.responseTime = in.getInts();
+
+            checkpoint.lastDispatched = in.getInt();
+            checkpoint.dispatches = in.getLong();
+            checkpoint.contextSwitches = in.getLong();
+            checkpoint.lastDispatchedId = in.getLong();
+
+            checkpoint.hasPending = in.getInt() != 0;
+            checkpoint.pendingLabel = in.getInt();
+            checkpoint.pendingStart = in.getInt();
+            checkpoint.pendingEnd = in.getInt();
+            checkpoint.ganttLabel = in.getInts();
+            checkpoint.ganttStart = in.getInts();
+            checkpoint.ganttEnd = in.getInts();
+            return checkpoint;
+        }
+    }
+
+    // Shallow copy, so that a kept checkpoint is not changed when it is resumed from
+    SchedulerCheckpoint copy() {
+        try {
+            return (SchedulerCheckpoint) clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e); // Cloneable
+        }
+    }
+
+    boolean isCompleted(int process) {
+        return (completedFlags[process >>> 6] & (1L << process)) != 0;
+    }
+
+    void setCompleted(int process) {
+        completedFlags[process >>> 6] |= 1L << process;
+    }
+
+    // Buffered little-endian writer over a file channel
+    private static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRoom(4);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRoom(8);
+            buffer.putLong(value);
+        }
+
+        void putString(String value) throws IOException {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensureRoom(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void putInts(int[] values) throws IOException {
+            putInt(values == null ? -1 : values.length);
+            for (int start = 0; values != null && start < values.length;) {
+                ensureRoom(4);
+                int count = Math.min(buffer.remaining() / 4, values.length - start);
+                buffer.asIntBuffer().put(values, start, count);
+                buffer.position(buffer.position() + 4 * count);
+                start += count;
+            }
+        }
+
+        void putLongs(long[] values) throws IOException {
+            putInt(values == null ? -1 : values.length);
+            for (int start = 0; values != null && start < values.length;) {
+                ensureRoom(8);
+                int count = Math.min(buffer.remaining() / 8, values.length - start);
+                buffer.asLongBuffer().put(values, start, count);
+                buffer.position(buffer.position() + 8 * count);
+                start += count;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRoom(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+
+    // Buffered little-endian reader over a file channel
+    private static final class Input {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        Input(FileChannel channel) {
+            this.channel = channel;
+            buffer.limit(0); // Nothing read yet
+        }
+
+        int getInt() throws IOException {
+            require(4);
+            return buffer.getInt();
+        }
+
+        long getLong() throws IOException {
+            require(8);
+            return buffer.getLong();
+        }
+
+        String getString() throws IOException {
+            int length = getInt();
+            if (length < 0 || length > BUFFER_SIZE) {
+                throw new IOException("Checkpoint is malformed");
+            }
+            byte[] bytes = new byte[length];
+            require(length);
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int[] getInts() throws IOException {
+            int length = getInt();
+            if (length < -1) {
+                throw new IOException("Checkpoint is malformed");
+            }
+            if (length == -1) {
+                return null;
+            }
+            int[] values = new int[length];
+            for (int start = 0; start < length;) {
+                require(4);
+                int count = Math.min(buffer.remaining() / 4, length - start);
+                buffer.asIntBuffer().get(values, start, count);
+                buffer.position(buffer.position() + 4 * count);
+                start += count;
+            }
+            return values;
+        }
+
+        long[] getLongs() throws IOException {
+            int length = getInt();
+            if (length < -1) {
+                throw new IOException("Checkpoint is malformed");
+            }
+            if (length == -1) {
+                return null;
+            }
+            long[] values = new long[length];
+            for (int start = 0; start < length;) {
+                require(8);
+                int count = Math.min(buffer.remaining() / 8, length - start);
+                buffer.asLongBuffer().get(values, start, count);
+                buffer.position(buffer.position() + 8 * count);
+                start += count;
+            }
+            return values;
+        }
+
+        // Makes sure at least the given number of bytes can be read from the buffer
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            buffer.compact();
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    throw new IOException("Checkpoint is truncated");
+                }
+            }
+            buffer.flip();
+        }
+    }
+}
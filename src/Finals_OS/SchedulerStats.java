@@ -0,0 +1,135 @@
+package Finals_OS;
+
+import java.io.IOException;
+
+/**
+ * Counters and timings collected inside one scheduling run: dispatches,
+ * preemptions, idle gaps, ready queue lengths, and the wall-clock time spent
+ * selecting processes and recording the Gantt Chart.
+ *
+ * Collection is switched on per run with SchedulingAlgorithm.scheduleWithStats().
+ * A plain schedule() collects nothing, and each instrumentation point then
+ * costs a single null check.
+ */
+public class SchedulerStats {
+    private final String algorithm; // Name of the scheduler class
+    private final int processes; // Number of processes scheduled
+    private long dispatches; // Times a different process was given the CPU
+    private long preemptions; // Dispatches that took the CPU from an unfinished process
+    private long idleGaps; // Periods in which the CPU had nothing to run
+    private long idleTime; // Total length of the idle periods
+    private final LatencyHistogram readyQueueLength = new LatencyHistogram(); // Sampled at each selection
+    private long selectionNanos; // Wall-clock time spent picking the next process
+    private long ganttNanos; // Wall-clock time spent recording the Gantt Chart
+    private long runNanos; // Wall-clock time of the whole run
+
+    SchedulerStats(String algorithm, int processes) {
+        this.algorithm = algorithm;
+        this.processes = processes;
+    }
+
+    void recordDispatch(boolean preemption) {
+        dispatches++;
+        if (preemption) {
+            preemptions++;
+        }
+    }
+
+    void recordIdleGap(int length) {
+        idleGaps++;
+        idleTime += length;
+    }
+
+    void recordReadyQueueLength(int length) {
+        readyQueueLength.record(length);
+    }
+
+    void addSelectionNanos(long nanos) {
+        selectionNanos += nanos;
+    }
+
+    void addGanttNanos(long nanos) {
+        ganttNanos += nanos;
+    }
+
+    void setRunNanos(long nanos) {
+        runNanos = nanos;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public int getProcesses() {
+        return processes;
+    }
+
+    public long getDispatches() {
+        return dispatches;
+    }
+
+    public long getPreemptions() {
+        return preemptions;
+    }
+
+    public long getIdleGaps() {
+        return idleGaps;
+    }
+
+    public long getIdleTime() {
+        return idleTime;
+    }
+
+    /**
+     * Returns the ready queue lengths seen each time a process was selected.
+     *
+     * @return Histogram of ready queue lengths
+     */
+    public LatencyHistogram getReadyQueueLength() {
+        return readyQueueLength;
+    }
+
+    public long getSelectionNanos() {
+        return selectionNanos;
+    }
+
+    public long getGanttNanos() {
+        return ganttNanos;
+    }
+
+    public long getRunNanos() {
+        return runNanos;
+    }
+
+    /**
+     * Displays the counters and timings.
+     */
+    public void display() {
+        try {
+            ResultRenderer out = ResultRenderer.standardOutput();
+            render(out);
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error displaying scheduler statistics: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the counters and timings to a renderer.
+     *
+     * @param out Renderer to write to
+     * @throws IOException If the output cannot be written
+     */
+    public void render(ResultRenderer out) throws IOException {
+        out.append("\nScheduler statistics (").append(algorithm).append(", ").appendNumber(processes)
+                .append(" processes):\n");
+        out.append("Dispatches: ").appendNumber(dispatches).append(" (").appendNumber(preemptions)
+                .append(" preemptions)\n");
+        out.append("Idle gaps: ").appendNumber(idleGaps).append(" (").appendNumber(idleTime).append(" ms idle)\n");
+        out.appendf("Ready queue length: mean %.2f, p99 %d, max %d\n", readyQueueLength.getMean(),
+                readyQueueLength.getPercentile(99), readyQueueLength.getMax());
+        out.appendf("Selection time: %.3f ms\n", selectionNanos / 1e6);
+        out.appendf("Gantt recording time: %.3f ms\n", ganttNanos / 1e6);
+        out.appendf("Total run time: %.3f ms\n", runNanos / 1e6);
+    }
+}
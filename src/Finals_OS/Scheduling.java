@@ -14,11 +14,31 @@
 // Main Class
 package Finals_OS;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
 
 public class Scheduling {
+    private static final int DEFAULT_SHOWN_ROWS = 10; // Rows shown by --show=top and --show=head without a count
+    private static final long CACHE_MEMORY_BYTES = 256L << 20; // Memory tier of the --cache result cache
+    private static final long DEFAULT_CHECKPOINT_SECONDS = 60; // Time between checkpoints without a count
 
     public static void main(String[] args) {
+        // --serve answers requests from standard input, --serve=<socket> from a Unix domain socket
+        if (args.length > 0 && (args[0].equals("--serve") || args[0].startsWith("--serve="))) {
+            runServer(args[0]);
+            return;
+        }
+
+        // With arguments, run one algorithm on a workload file instead of the menu
+        if (args.length > 0) {
+            runFromFile(args);
+            return;
+        }
+
         Scanner sc = new Scanner(System.in);
 
         while (true) {
@@ -33,27 +53,33 @@ public class Scheduling {
                 System.out.println("4. Priority Scheduling (Non-Preemptive)");
                 System.out.println("5. Priority Scheduling (Preemptive)");
                 System.out.println("6. Round Robin");
-                System.out.println("7. Exit");
+                System.out.println("7. Multi-Level Feedback Queue (MLFQ)");
+                System.out.println("8. Completely Fair Scheduler (CFS)");
+                System.out.println("9. Lottery Scheduling");
+                System.out.println("10. Stride Scheduling");
+                System.out.println("11. Compare All Algorithms");
+                System.out.println("12. Round Robin Time Quantum Sweep");
+                System.out.println("13. Exit");
                 System.out.println("\n----------------------------------------");
 
                 // Prompt the user to choose an algorithm
-                System.out.print("\nChoose an algorithm (1-7): ");
+                System.out.print("\nChoose an algorithm (1-13): ");
                 int choice = -1;
                 while (true) {
                     try {
                         choice = sc.nextInt();
-                        if (choice >= 1 && choice <= 7) {
+                        if (choice >= 1 && choice <= 13) {
                             break;
                         } else {
-                            System.out.print("Invalid choice! Please choose a valid algorithm (1-7): ");
+                            System.out.print("Invalid choice! Please choose a valid algorithm (1-13): ");
                         }
                     } catch (InputMismatchException e) {
-                        System.out.print("Invalid input! Please enter a number between 1 and 7: ");
+                        System.out.print("Invalid input! Please enter a number between 1 and 13: ");
                         sc.next(); // Clear the invalid input
                     }
                 }
-                // Exit the program if the user chooses option 7
-                if (choice == 7) {
+                // Exit the program if the user chooses option 13
+                if (choice == 13) {
                     System.out.println("Exiting Program...");
                     break;
                 }
@@ -67,8 +93,8 @@ public class Scheduling {
                     String pid = String.valueOf((char) ('A' + i));
                     int priority = 0;
 
-                    // Only ask for priority if the chosen algorithm is priority scheduling
-                    if (choice == 4 || choice == 5) {
+                    // Only ask for priority if the chosen algorithm uses it
+                    if (choice == 4 || choice == 5 || choice == 8 || choice == 9 || choice == 10 || choice == 11) {
                         System.out.print("Enter priority for process " + pid + ": ");
                         priority = sc.nextInt();
                     }
@@ -84,6 +110,27 @@ public class Scheduling {
                     processes[i] = new Process(pid, AT, BT, priority);
                 }
 
+                // Run every algorithm side by side on the same processes
+                if (choice == 11) {
+                    System.out.print("Enter time quantum for Round Robin, MLFQ, CFS, lottery and stride: ");
+                    int timeQuantum = sc.nextInt();
+                    AlgorithmComparison comparison = new AlgorithmComparison(Workload.fromProcesses(processes),
+                            timeQuantum);
+                    comparison.run();
+                    comparison.displayResults();
+                }
+
+                // Try a range of Round Robin time quanta on the same processes
+                if (choice == 12) {
+                    System.out.print("Enter smallest time quantum: ");
+                    int minQuantum = sc.nextInt();
+                    System.out.print("Enter largest time quantum: ");
+                    int maxQuantum = sc.nextInt();
+                    QuantumSweep sweep = new QuantumSweep(Workload.fromProcesses(processes), minQuantum, maxQuantum);
+                    sweep.run();
+                    sweep.displayResults();
+                }
+
                 SchedulingAlgorithm scheduler = null;
 
                 // Instantiate the appropriate scheduling algorithm based on user choice
@@ -108,6 +155,31 @@ public class Scheduling {
                         int timeQuantum = sc.nextInt();
                         scheduler = new RoundRobinClass(processes, timeQuantum); // Ensure this class exists
                         break;
+                    case 7:
+                        System.out.print("Enter time quantum of the top level: ");
+                        int baseQuantum = sc.nextInt();
+                        scheduler = new MLFQClass(processes, baseQuantum); // Quantum doubles at each lower level
+                        break;
+                    case 8:
+                        System.out.print("Enter minimum granularity: ");
+                        int minGranularity = sc.nextInt();
+                        scheduler = new CFSClass(processes, minGranularity); // Priority is used as the nice value
+                        break;
+                    case 9:
+                        System.out.print("Enter time quantum: ");
+                        int lotteryQuantum = sc.nextInt();
+                        System.out.print("Enter random seed: ");
+                        long seed = sc.nextLong();
+                        scheduler = new LotteryClass(processes, lotteryQuantum, seed); // Priority sets the tickets
+                        break;
+                    case 10:
+                        System.out.print("Enter time quantum: ");
+                        int strideQuantum = sc.nextInt();
+                        scheduler = new StrideClass(processes, strideQuantum); // Priority sets the tickets
+                        break;
+                    case 11:
+                    case 12:
+                        break; // Comparison or sweep already displayed
                     default:
                         System.out.println("Invalid choice! Please select a valid option.");
                         continue;
@@ -137,4 +209,276 @@ public class Scheduling {
 
         sc.close();
     }
-}
\ No newline at end of file
+
+    // Schedules a workload, then applies the process edits read from standard input one at a time and
+    // displays the results after each; only the part of the schedule an edit can affect is replayed
+    private static void runWhatIf(IncrementalScheduler incremental, ResultRenderer renderer) {
+        Workload workload = incremental.getWorkload();
+        displayWhatIf(incremental.schedule(), renderer);
+
+        Map<String, Integer> indexOf = null; // Index of each process ID, built on the first edit
+        Scanner sc = new Scanner(System.in);
+        while (sc.hasNextLine()) {
+            String line = sc.nextLine().trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            try {
+                String[] fields = line.split("\\s+");
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Expected <process id> <arrival time> <burst time>");
+                }
+                if (indexOf == null) {
+                    indexOf = new HashMap<>();
+                    for (int i = 0; i < workload.size(); i++) {
+                        indexOf.put(workload.pid(i), i);
+                    }
+                }
+                Integer index = indexOf.get(fields[0]);
+                if (index == null) {
+                    throw new IllegalArgumentException("Unknown process: " + fields[0]);
+                }
+
+                long start = System.nanoTime();
+                SchedulingAlgorithm scheduler = incremental.setProcessTimes(index, Integer.parseInt(fields[1]),
+                        Integer.parseInt(fields[2]));
+                long elapsed = System.nanoTime() - start;
+                System.out.printf("\n%s: AT=%s BT=%s, replayed from time %d", fields[0], fields[1], fields[2],
+                        incremental.getReplayStart());
+                if (incremental.getRejoinTime() >= 0) {
+                    System.out.printf(" to %d", incremental.getRejoinTime());
+                }
+                System.out.printf(" in %.1f ms\n", elapsed / 1e6);
+                displayWhatIf(scheduler, renderer);
+            } catch (IllegalArgumentException e) {
+                System.err.println("Error: " + e.getMessage());
+            }
+        }
+        sc.close();
+    }
+
+    private static void displayWhatIf(SchedulingAlgorithm scheduler, ResultRenderer renderer) {
+        if (renderer != null) {
+            scheduler.displayResults(renderer);
+        } else {
+            scheduler.displayMetrics();
+        }
+        scheduler.getMetrics().display();
+    }
+
+    // Runs the simulation server until its input ends or the process is stopped
+    private static void runServer(String option) {
+        SimulationServer server = new SimulationServer();
+        server.warmUp();
+        try {
+            if (option.startsWith("--serve=")) {
+                Path socket = Paths.get(option.substring("--serve=".length()));
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> socket.toFile().delete())); // Stopped by a signal
+                server.serve(socket);
+            } else {
+                server.serve(System.in, System.out);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+
+    // Runs one algorithm on a CSV or binary workload file:
+    // Scheduling <workload file> <algorithm> [time quantum] [--cores=<count>] [--queue=<mode>] [--show=<mode>[:<rows>]] [--stats]
+    //                             [--cache=<directory>] [--parallel] [--checkpoint=<file>[:<seconds>]] [--resume]
+    //                             [--what-if] [--aging=<interval>] [--seed=<seed>]
+    private static void runFromFile(String[] args) {
+        boolean printStats = false; // Collect and print scheduler statistics (also emits a JFR event)
+        ResultRenderer renderer = null; // Renders the process table and Gantt Chart, or null for metrics only
+        ResultCache cache = null; // Reuses results of earlier runs on the same workload, or null
+        boolean parallel = false; // Schedule the busy periods of the trace in parallel
+        Path checkpoint = null; // File the run is checkpointed to, or null
+        long checkpointSeconds = DEFAULT_CHECKPOINT_SECONDS; // Least time between two checkpoints
+        boolean resume = false; // Continue from the checkpoint file if it exists
+        boolean whatIf = false; // Apply process edits read from standard input, rescheduling after each
+        int agingInterval = 0; // Waiting time per priority level gained, or 0 for no aging
+        Long seed = null; // Seed of the lottery draws, or null for the default
+        int cores = 0; // Number of simulated cores, or 0 for the single-CPU algorithms
+        MultiCoreScheduler.QueueMode queueMode = MultiCoreScheduler.QueueMode.GLOBAL;
+        try {
+            // Options may appear anywhere on the command line
+            List<String> positional = new ArrayList<>();
+            for (String arg : args) {
+                if (arg.equals("--stats")) {
+                    printStats = true;
+                } else if (arg.equals("--parallel")) {
+                    parallel = true;
+                } else if (arg.equals("--resume")) {
+                    resume = true;
+                } else if (arg.equals("--what-if")) {
+                    whatIf = true;
+                } else if (arg.startsWith("--checkpoint=")) {
+                    String value = arg.substring("--checkpoint=".length());
+                    int colon = value.lastIndexOf(':');
+                    if (colon > 0) {
+                        checkpointSeconds = Long.parseLong(value.substring(colon + 1));
+                        value = value.substring(0, colon);
+                    }
+                    checkpoint = Paths.get(value);
+                } else if (arg.startsWith("--seed=")) {
+                    seed = Long.parseLong(arg.substring("--seed=".length()));
+                } else if (arg.startsWith("--aging=")) {
+                    agingInterval = Integer.parseInt(arg.substring("--aging=".length()));
+                } else if (arg.startsWith("--cores=")) {
+                    cores = Integer.parseInt(arg.substring("--cores=".length()));
+                } else if (arg.startsWith("--show=")) {
+                    String[] show = arg.substring("--show=".length()).split(":", 2);
+                    int rows = show.length > 1 ? Integer.parseInt(show[1]) : DEFAULT_SHOWN_ROWS;
+                    renderer = ResultRenderer.standardOutput().withMode(ResultRenderer.Mode.fromCommandName(show[0]), rows);
+                } else if (arg.startsWith("--cache=")) {
+                    cache = new ResultCache(CACHE_MEMORY_BYTES, Paths.get(arg.substring("--cache=".length())));
+                } else if (arg.startsWith("--queue=")) {
+                    queueMode = MultiCoreScheduler.QueueMode.fromCommandName(arg.substring("--queue=".length()));
+                } else {
+                    positional.add(arg);
+                }
+            }
+            args = positional.toArray(new String[0]);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: " + e.getMessage());
+            return;
+        }
+
+        if (args.length < 2) {
+            System.err.println("Usage: Scheduling <workload file> <algorithm> [time quantum] [--cores=<count>] [--queue=<mode>] [--show=<mode>[:<rows>]] [--stats]");
+            System.err.println("                  [--cache=<directory>] [--parallel] [--checkpoint=<file>[:<seconds>]] [--resume]");
+            System.err.println("                  [--what-if] [--aging=<interval>] [--seed=<seed>]");
+            System.err.println("       Scheduling <workload file> rr-sweep <smallest quantum> <largest quantum>");
+            System.err.println("       Scheduling --serve[=<socket>]");
+            System.err.println("Algorithms: fcfs, sjf, srtf, priority, priority-preemptive, rr, mlfq, cfs, lottery, stride, all");
+            System.err.println("Queue modes (with --cores): global, balanced, stealing");
+            System.err.println("Show modes: summary, full, top (longest waiting times), head (first and last rows)");
+            System.err.println("Aging (priority algorithms): a waiting process gains a priority level every <interval>");
+            System.err.println("What-if edits, one per line on standard input: <process id> <arrival time> <burst time>");
+            return;
+        }
+        try {
+            if (args[1].equalsIgnoreCase("rr-sweep")) {
+                if (args.length < 4) {
+                    throw new IllegalArgumentException("rr-sweep needs a smallest and a largest time quantum");
+                }
+                QuantumSweep sweep = new QuantumSweep(WorkloadLoader.load(Paths.get(args[0])),
+                        Integer.parseInt(args[2]), Integer.parseInt(args[3]));
+                sweep.run();
+                sweep.displayResults();
+                return;
+            }
+
+            boolean compareAll = args[1].equalsIgnoreCase("all");
+            Algorithm algorithm = compareAll ? Algorithm.ROUND_ROBIN : Algorithm.fromCommandName(args[1]);
+            int timeQuantum = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+            if (algorithm.usesTimeQuantum() && timeQuantum <= 0) {
+                throw new IllegalArgumentException(algorithm.getTitle() + " needs a positive time quantum");
+            }
+            if (parallel && (cores > 0 || printStats || compareAll)) {
+                throw new IllegalArgumentException("--parallel cannot be combined with --cores, --stats or all");
+            }
+            if (checkpoint == null && resume) {
+                throw new IllegalArgumentException("--resume needs --checkpoint=<file>");
+            }
+            if (checkpoint != null && (cores > 0 || parallel || compareAll)) {
+                throw new IllegalArgumentException("--checkpoint cannot be combined with --cores, --parallel or all");
+            }
+            if (whatIf && (cores > 0 || parallel || printStats || cache != null || checkpoint != null || compareAll)) {
+                throw new IllegalArgumentException(
+                        "--what-if cannot be combined with --cores, --parallel, --stats, --cache, --checkpoint or all");
+            }
+            if (agingInterval < 0) {
+                throw new IllegalArgumentException("Aging interval must not be negative");
+            }
+            if (agingInterval > 0 && algorithm != Algorithm.PRIORITY && algorithm != Algorithm.PRIORITY_PREEMPTIVE) {
+                throw new IllegalArgumentException("--aging is only for priority and priority-preemptive");
+            }
+            if (agingInterval > 0 && (cores > 0 || parallel || cache != null || whatIf)) {
+                throw new IllegalArgumentException("--aging cannot be combined with --cores, --parallel, --cache or --what-if");
+            }
+            if (seed != null && algorithm != Algorithm.LOTTERY) {
+                throw new IllegalArgumentException("--seed is only for lottery");
+            }
+            if (seed != null && (cache != null || whatIf)) {
+                throw new IllegalArgumentException("--seed cannot be combined with --cache or --what-if");
+            }
+
+            Workload workload = WorkloadLoader.load(Paths.get(args[0]));
+            if (workload.size() == 0) {
+                throw new IllegalArgumentException("Workload file has no processes");
+            }
+
+            if (compareAll) {
+                AlgorithmComparison comparison = new AlgorithmComparison(workload, timeQuantum);
+                comparison.setResultCache(cache);
+                comparison.run();
+                comparison.displayResults();
+                return;
+            }
+
+            // Trace files can be huge, so by default only the summary is printed and no Gantt Chart is kept
+            boolean recordGantt = renderer != null && renderer.showsGanttEntries();
+            if (whatIf) {
+                System.out.println(algorithm.getTitle() + ": " + workload.size() + " processes");
+                runWhatIf(new IncrementalScheduler(workload, algorithm, timeQuantum, recordGantt), renderer);
+                return;
+            }
+            SchedulingAlgorithm scheduler;
+            SchedulerStats stats = null;
+            if (cache != null && algorithm.isCacheable() && cores == 0 && !printStats && !parallel
+                    && checkpoint == null) {
+                scheduler = cache.schedule(workload, algorithm, timeQuantum, recordGantt); // Statistics need a real run
+            } else {
+                if (cores > 0) {
+                    scheduler = new MultiCoreScheduler(workload, algorithm, timeQuantum, cores, queueMode);
+                } else if (parallel) {
+                    scheduler = new BusyPeriodScheduler(workload, algorithm, timeQuantum);
+                } else if (seed != null) {
+                    scheduler = new LotteryClass(workload, timeQuantum, seed);
+                } else if (agingInterval > 0) {
+                    scheduler = new PrioritySchedulingClass(workload, algorithm == Algorithm.PRIORITY_PREEMPTIVE,
+                            agingInterval);
+                } else {
+                    scheduler = algorithm.create(workload, timeQuantum);
+                }
+                if (!recordGantt) {
+                    scheduler.setGanttSink(GanttSink.NONE);
+                }
+                if (checkpoint != null) {
+                    scheduler.setCheckpointFile(checkpoint, checkpointSeconds * 1000);
+                    if (resume && Files.exists(checkpoint)) {
+                        scheduler.resumeFrom(checkpoint);
+                    }
+                }
+                if (printStats) {
+                    stats = scheduler.scheduleWithStats();
+                } else {
+                    scheduler.schedule();
+                }
+            }
+
+            System.out.print(algorithm.getTitle() + ": " + workload.size() + " processes");
+            if (cores > 0) {
+                System.out.print(" on " + cores + " cores (" + queueMode.getCommandName() + " queue)");
+            }
+            if (agingInterval > 0) {
+                System.out.print(", aging every " + agingInterval);
+            }
+            System.out.println();
+            if (renderer != null) {
+                scheduler.displayResults(renderer);
+            } else {
+                scheduler.displayMetrics();
+            }
+            scheduler.getMetrics().display();
+            if (stats != null) {
+                stats.display();
+            }
+        } catch (IOException | IllegalArgumentException | UnsupportedOperationException | ExecutionException e) {
+            System.err.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
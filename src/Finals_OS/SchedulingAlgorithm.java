@@ -1,36 +1,123 @@
 package Finals_OS;
 
-import java.util.*;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * Abstract class that defines a general structure for CPU scheduling
  * algorithms.
  */
 public abstract class SchedulingAlgorithm {
-    protected Process[] processes; // Array of processes to be scheduled
-    protected List<Process> inputOrderProcesses; // List of processes in their input order
-    protected List<GanttChart> ganttChart; // Gantt Chart entries for visualization
+    protected Workload workload; // Arrival, burst and priority columns plus per-process results
+    protected Process[] processes; // Original process objects, or null when scheduling a Workload directly
+    protected GanttChart ganttChart; // In-memory Gantt Chart, or null when segments go to another sink
+    private GanttSink ganttSink; // Receives coalesced Gantt Chart segments
+    int pendingLabel; // Label of the segment not yet passed to the sink (saved in checkpoints, as below)
+    int pendingStart; // Start time of the pending segment
+    int pendingEnd; // End time of the pending segment
+    boolean hasPending; // True if there is a pending segment
     protected int currentTime; // Keeps track of the current time in the scheduling
     protected double avgTurnAroundTime; // Average Turnaround Time
     protected double avgWaitingTime; // Average Waiting Time
     protected double cpuUtilization; // CPU Utilization percentage
+    protected final MetricsAccumulator metrics; // Latency distributions, throughput and context switches
+    int lastDispatched = -1; // Index of the process holding the CPU, or -1 once it completes
+    private SchedulerStats stats; // Collects counters and timings during scheduleWithStats(), otherwise null
 
     /**
      * Constructor to initialize the scheduling algorithm with a set of processes.
+     * Results are written back into the process objects after scheduling.
      * 
      * @param processes Array of processes to schedule
      */
     public SchedulingAlgorithm(Process[] processes) {
+        this(Workload.fromProcesses(processes));
         this.processes = processes;
-        this.inputOrderProcesses = new ArrayList<>();
-        for (Process p : processes) {
-            this.inputOrderProcesses.add(p); // Save the input order of processes
-        }
-        this.ganttChart = new ArrayList<>();
+    }
+
+    /**
+     * Constructor to initialize the scheduling algorithm with a columnar workload.
+     * Results are written into the workload's result columns.
+     * 
+     * @param workload Workload to schedule
+     */
+    public SchedulingAlgorithm(Workload workload) {
+        this.workload = workload;
+        this.processes = null;
+        this.ganttChart = new GanttChart();
+        this.ganttSink = ganttChart;
         this.currentTime = 0;
         this.avgTurnAroundTime = 0;
         this.avgWaitingTime = 0;
         this.cpuUtilization = 0;
+        this.metrics = new MetricsAccumulator();
+    }
+
+    /**
+     * Sends Gantt Chart segments to the given sink instead of the in-memory chart.
+     * Use GanttSink.NONE to skip Gantt Chart recording entirely.
+     * 
+     * @param sink Sink that receives the segments
+     */
+    public void setGanttSink(GanttSink sink) {
+        this.ganttSink = sink;
+        this.ganttChart = sink instanceof GanttChart ? (GanttChart) sink : null;
+    }
+
+    /**
+     * Returns true unless Gantt Chart recording was switched off with
+     * GanttSink.NONE.
+     * 
+     * @return True if segments are passed to a sink
+     */
+    protected boolean isRecordingGantt() {
+        return ganttSink != GanttSink.NONE;
+    }
+
+    /**
+     * Returns the in-memory Gantt Chart.
+     * 
+     * @return Gantt Chart, or null if segments were sent to another sink
+     */
+    public GanttChart getGanttChart() {
+        return ganttChart;
+    }
+
+    /**
+     * Returns the average turnaround time of the last run.
+     * 
+     * @return Average Turnaround Time
+     */
+    public double getAvgTurnAroundTime() {
+        return avgTurnAroundTime;
+    }
+
+    /**
+     * Returns the average waiting time of the last run.
+     * 
+     * @return Average Waiting Time
+     */
+    public double getAvgWaitingTime() {
+        return avgWaitingTime;
+    }
+
+    /**
+     * Returns the CPU utilization of the last run.
+     * 
+     * @return CPU Utilization percentage
+     */
+    public double getCpuUtilization() {
+        return cpuUtilization;
+    }
+
+    /**
+     * Returns the streaming metrics of the last run: response, waiting and
+     * turnaround time percentiles, throughput and context switches.
+     * 
+     * @return Metrics accumulator
+     */
+    public MetricsAccumulator getMetrics() {
+        return metrics;
     }
 
     /**
@@ -39,29 +126,171 @@ public abstract class SchedulingAlgorithm {
      */
     public abstract void schedule();
 
+    /**
+     * Runs schedule() while collecting dispatch, preemption, idle and ready queue
+     * counters and selection and Gantt recording times, and emits a Java Flight
+     * Recorder event for the run.
+     * 
+     * @return Statistics of the run
+     */
+    public SchedulerStats scheduleWithStats() {
+        SchedulerStats runStats = new SchedulerStats(getClass().getSimpleName(), workload.size());
+        SchedulingRunEvent event = new SchedulingRunEvent();
+        event.begin();
+        long start = System.nanoTime();
+        stats = runStats;
+        try {
+            schedule();
+        } finally {
+            stats = null;
+        }
+        runStats.setRunNanos(System.nanoTime() - start);
+        event.end();
+
+        if (event.shouldCommit()) {
+            event.algorithm = runStats.getAlgorithm();
+            event.processes = runStats.getProcesses();
+            event.dispatches = runStats.getDispatches();
+            event.preemptions = runStats.getPreemptions();
+            event.idleGaps = runStats.getIdleGaps();
+            event.meanReadyQueueLength = runStats.getReadyQueueLength().getMean();
+            event.maxReadyQueueLength = runStats.getReadyQueueLength().getMax();
+            event.selectionTime = runStats.getSelectionNanos();
+            event.ganttTime = runStats.getGanttNanos();
+            event.commit();
+        }
+        return runStats;
+    }
+
+    // Copies the results of the last run, for ResultCache
+    ScheduleResult snapshot() {
+        GanttChart chart = ganttChart;
+        int segments = chart != null ? chart.size() : 0;
+        int[] label = chart != null ? new int[segments] : null;
+        int[] start = chart != null ? new int[segments] : null;
+        int[] end = chart != null ? new int[segments] : null;
+        for (int i = 0; i < segments; i++) {
+            label[i] = chart.label(i);
+            start[i] = chart.startTime(i);
+            end[i] = chart.endTime(i);
+        }
+        return new ScheduleResult(workload.completionTime.clone(), workload.responseTime.clone(), currentTime,
+                metrics.getDispatches(), metrics.getContextSwitches(), resultCounter(), label, start, end);
+    }
+
+    // Puts this scheduler in the state schedule() would leave it in, from a cached result of the same inputs
+    void restore(ScheduleResult result) {
+        System.arraycopy(result.completionTime, 0, workload.completionTime, 0, workload.size());
+        System.arraycopy(result.responseTime, 0, workload.responseTime, 0, workload.size());
+        currentTime = result.endTime;
+        if (isRecordingGantt() && result.hasGanttChart()) {
+            for (int i = 0; i < result.ganttLabel.length; i++) {
+                ganttSink.accept(result.ganttLabel[i], result.ganttStart[i], result.ganttEnd[i]);
+            }
+        }
+        for (int i = 0; i < workload.size(); i++) {
+            metrics.onComplete(workload.completionTime[i], i, workload.AT[i], workload.BT[i],
+                    (long) workload.AT[i] + workload.responseTime[i]);
+        }
+        metrics.addDispatches(result.dispatches, result.contextSwitches);
+        restoreResultCounter(result.counter);
+        calculateMetrics();
+    }
+
+    /**
+     * Returns a counter of the last run that is kept with a cached result, such
+     * as Round Robin's dispatch count.
+     * 
+     * @return Counter value, 0 by default
+     */
+    protected long resultCounter() {
+        return 0;
+    }
+
+    /**
+     * Sets the counter returned by resultCounter() when a cached result is
+     * restored instead of running schedule().
+     * 
+     * @param counter Counter value of the cached run
+     */
+    protected void restoreResultCounter(long counter) {
+    }
+
+    /**
+     * Makes schedule() write its full state to a checkpoint file at most once per
+     * interval, so that a run that is stopped can be continued with resumeFrom().
+     * Only schedulers with checkpoint support can do this.
+     * 
+     * @param file           File to write checkpoints to (replaced each time)
+     * @param intervalMillis Least wall-clock time between two checkpoints
+     * @throws IOException If checkpoints cannot be written to the file's directory
+     */
+    public void setCheckpointFile(Path file, long intervalMillis) throws IOException {
+        requireCheckpointSupport().setFile(file, intervalMillis);
+    }
+
+    /**
+     * Makes the next schedule() continue from a checkpoint instead of starting
+     * over. The results are the same as those of an uninterrupted run. Gantt
+     * Chart segments that were passed to a sink other than the in-memory Gantt
+     * Chart before the checkpoint are not passed again.
+     * 
+     * @param file Checkpoint file written by an earlier run of this scheduler
+     * @throws IOException If the checkpoint cannot be read or belongs to another
+     *                     scheduler, setting or workload
+     */
+    public void resumeFrom(Path file) throws IOException {
+        requireCheckpointSupport().resumeFrom(file);
+    }
+
+    /**
+     * Returns the checkpointing of this scheduler's event loop.
+     * 
+     * @return Checkpoint support, or null if the scheduler has none
+     */
+    CheckpointSupport checkpointSupport() {
+        return null;
+    }
+
+    private CheckpointSupport requireCheckpointSupport() {
+        CheckpointSupport support = checkpointSupport();
+        if (support == null) {
+            throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support checkpoints");
+        }
+        return support;
+    }
+
     /**
      * Calculates the metrics such as Turnaround Time, Waiting Time, and CPU
      * Utilization.
      */
     protected void calculateMetrics() {
         try {
-            int totalTurnAroundTime = 0;
-            int totalWaitingTime = 0;
-            int totalBurstTime = 0;
+            finishGanttChart(); // Scheduling is done; pass the last segment to the sink
+
+            long totalTurnAroundTime = 0;
+            long totalWaitingTime = 0;
+            long totalBurstTime = 0;
+            int n = workload.size();
 
             // Calculate turnaround time, waiting time, and aggregate metrics
-            for (Process p : processes) {
-                p.turnAroundTime = p.completionTime - p.AT; // TAT = CT - AT
-                p.waitingTime = p.turnAroundTime - p.BT; // WT = TAT - BT
-                totalTurnAroundTime += p.turnAroundTime;
-                totalWaitingTime += p.waitingTime;
-                totalBurstTime += p.BT;
+            for (int i = 0; i < n; i++) {
+                workload.turnAroundTime[i] = workload.completionTime[i] - workload.AT[i]; // TAT = CT - AT
+                workload.waitingTime[i] = workload.turnAroundTime[i] - workload.BT[i]; // WT = TAT - BT
+                totalTurnAroundTime += workload.turnAroundTime[i];
+                totalWaitingTime += workload.waitingTime[i];
+                totalBurstTime += workload.BT[i];
             }
 
             // Compute averages and CPU utilization
-            avgTurnAroundTime = (double) totalTurnAroundTime / processes.length;
-            avgWaitingTime = (double) totalWaitingTime / processes.length;
+            avgTurnAroundTime = (double) totalTurnAroundTime / n;
+            avgWaitingTime = (double) totalWaitingTime / n;
             cpuUtilization = (double) totalBurstTime / currentTime * 100;
+
+            // Keep callers that passed process objects up to date
+            if (processes != null) {
+                workload.copyResultsTo(processes);
+            }
         } catch (Exception e) {
             System.err.println("Error calculating metrics: " + e.getMessage());
             e.printStackTrace();
@@ -72,48 +301,42 @@ public abstract class SchedulingAlgorithm {
      * Displays the scheduling results including process details and metrics.
      */
     public void displayResults() {
-        try {
-            // Print the process details in a tabular format
-            System.out.println("\nP\tAT\tBT\tCT\tTAT\tWT");
-            char processID = 'A';
-            for (Process p : inputOrderProcesses) {
-                System.out.printf("%-2s\t%-2d\t%-2d\t%-3d\t%-3d\t%-3d\n",
-                        processID, p.AT, p.BT, p.completionTime,
-                        p.turnAroundTime, p.waitingTime);
-                processID++;
-            }
-
-            // Print average metrics
-            System.out.printf("\nAveTAT: %.2f ms\n", avgTurnAroundTime);
-            System.out.printf("AveWT: %.2f ms\n", avgWaitingTime);
-            System.out.printf("CPU Util: %.2f%%\n", cpuUtilization);
+        displayResults(ResultRenderer.standardOutput());
+    }
 
-            // Display the Gantt Chart
-            displayGanttChart();
+    /**
+     * Displays the scheduling results through a renderer, which decides how much
+     * of the process table and Gantt Chart to show.
+     * 
+     * @param renderer Renderer to write the results with
+     */
+    public void displayResults(ResultRenderer renderer) {
+        try {
+            renderer.renderResults(this);
         } catch (Exception e) {
             System.err.println("Error displaying results: " + e.getMessage());
             e.printStackTrace();
         }
     }
 
+    /**
+     * Displays the average metrics only.
+     */
+    public void displayMetrics() {
+        try {
+            ResultRenderer.standardOutput().renderMetrics(this);
+        } catch (Exception e) {
+            System.err.println("Error displaying metrics: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Displays the Gantt Chart.
      */
     protected void displayGanttChart() {
         try {
-            System.out.println("\nGantt Chart:");
-
-            // Print Gantt Chart process labels
-            for (GanttChart entry : ganttChart) {
-                System.out.printf("| %-5s ", entry.label);
-            }
-            System.out.println("|");
-
-            // Print Gantt Chart time markers
-            for (GanttChart entry : ganttChart) {
-                System.out.printf("%-7d ", entry.startTime);
-            }
-            System.out.println(currentTime); // Final end time
+            ResultRenderer.standardOutput().renderGanttChart(this);
         } catch (Exception e) {
             System.err.println("Error displaying Gantt chart: " + e.getMessage());
             e.printStackTrace();
@@ -121,24 +344,95 @@ public abstract class SchedulingAlgorithm {
     }
 
     /**
-     * Adds an entry for a process to the Gantt Chart.
+     * Returns true if the process table should include a priority column.
+     * 
+     * @return True for algorithms that schedule by priority
+     */
+    protected boolean showsPriority() {
+        return false;
+    }
+
+    /**
+     * Writes the average metrics to a renderer.
+     * 
+     * @param out Renderer to write to
+     * @throws IOException If the output cannot be written
+     */
+    protected void renderMetrics(ResultRenderer out) throws IOException {
+        out.appendf("\nAveTAT: %.2f ms\n", avgTurnAroundTime);
+        out.appendf("AveWT: %.2f ms\n", avgWaitingTime);
+        out.appendf("CPU Util: %.2f%%\n", cpuUtilization);
+    }
+
+    /**
+     * Writes the Gantt Chart to a renderer.
      * 
-     * @param processId ID of the process
+     * @param out Renderer to write to
+     * @throws IOException If the output cannot be written
+     */
+    protected void renderGanttChart(ResultRenderer out) throws IOException {
+        out.append("\nGantt Chart:\n");
+        if (ganttChart == null) {
+            out.append("(not recorded)\n");
+            return;
+        }
+        out.appendGanttLane(ganttChart, workload, currentTime);
+    }
+
+    /**
+     * Records that a process was given the CPU. Calls for the process that already
+     * has the CPU are ignored, so a run that continues across events counts as
+     * one dispatch. The first dispatch sets the process's response time.
+     * 
+     * @param process Index of the process
+     * @param time    Time the process starts running
+     */
+    protected void recordDispatch(int process, int time) {
+        if (process == lastDispatched) {
+            return; // Still running; not a new dispatch
+        }
+        countDispatch(lastDispatched != -1); // The previous process had not finished
+        lastDispatched = process;
+        if (workload.responseTime[process] < 0) {
+            workload.responseTime[process] = time - workload.AT[process]; // RT = first dispatch - AT
+        }
+        metrics.onDispatch(time, process);
+    }
+
+    /**
+     * Records that a process finished and sets its completion time. A process that
+     * was never dispatched (a zero-length burst) gets a response time of 0.
+     * 
+     * @param process Index of the process
+     * @param time    Completion time
+     */
+    protected void recordCompletion(int process, int time) {
+        if (process == lastDispatched) {
+            lastDispatched = -1; // The CPU is free
+        }
+        workload.completionTime[process] = time;
+        if (workload.responseTime[process] < 0) {
+            workload.responseTime[process] = 0;
+        }
+        metrics.onComplete(time, process, workload.AT[process], workload.BT[process],
+                (long) workload.AT[process] + workload.responseTime[process]);
+    }
+
+    /**
+     * Adds an entry for a process to the Gantt Chart. An entry that continues the
+     * previous entry of the same process is merged into it.
+     * 
+     * @param process   Index of the process
      * @param startTime Start time of the process
      * @param endTime   End time of the process
      */
-    protected void addToGanttChart(String processId, int startTime, int endTime) {
-        try {
-            // Ensure processId is in the correct format
-            if (processId != null && !processId.isEmpty()) {
-                ganttChart.add(new GanttChart(processId, startTime, endTime));
-            } else {
-                throw new IllegalArgumentException("Process ID is invalid: " + processId);
-            }
-        } catch (Exception e) {
-            System.err.println("Error adding to Gantt chart: " + e.getMessage());
-            e.printStackTrace();
+    protected void addToGanttChart(int process, int startTime, int endTime) {
+        if (ganttSink == GanttSink.NONE) {
+            return; // Metrics-only run
         }
+        long recording = startGanttRecording();
+        appendSegment(process, startTime, endTime);
+        endGanttRecording(recording);
     }
 
     /**
@@ -148,11 +442,104 @@ public abstract class SchedulingAlgorithm {
      * @param endTime   End time of the idle period
      */
     protected void addIdleTimeToGanttChart(int startTime, int endTime) {
-        try {
-            ganttChart.add(new GanttChart("////", startTime, endTime)); // "////" denotes idle time
-        } catch (Exception e) {
-            System.err.println("Error adding idle time to Gantt chart: " + e.getMessage());
-            e.printStackTrace();
+        countIdleGap(startTime, endTime);
+        addToGanttChart(GanttSink.IDLE, startTime, endTime); // "////" denotes idle time
+    }
+
+    /**
+     * Instrumentation: counts a dispatch of a new process.
+     * 
+     * @param preemption True if the CPU was taken from a process that has not finished
+     */
+    protected void countDispatch(boolean preemption) {
+        if (stats != null) {
+            stats.recordDispatch(preemption);
+        }
+    }
+
+    /**
+     * Instrumentation: counts a period in which the CPU had nothing to run.
+     * 
+     * @param startTime Start time of the idle period
+     * @param endTime   End time of the idle period
+     */
+    protected void countIdleGap(int startTime, int endTime) {
+        if (stats != null) {
+            stats.recordIdleGap(endTime - startTime);
+        }
+    }
+
+    /**
+     * Instrumentation: call just before picking the next process from a ready
+     * queue, and pass the result to endSelection() afterwards.
+     * 
+     * @param readyLength Number of processes waiting in the ready queue
+     * @return Start time in nanoseconds, or 0 when no statistics are collected
+     */
+    protected long startSelection(int readyLength) {
+        if (stats == null) {
+            return 0;
+        }
+        stats.recordReadyQueueLength(readyLength);
+        return System.nanoTime();
+    }
+
+    /**
+     * Instrumentation: adds the time since startSelection() to the selection time.
+     * 
+     * @param start Value returned by startSelection()
+     */
+    protected void endSelection(long start) {
+        if (stats != null) {
+            stats.addSelectionNanos(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Instrumentation: call before passing segments to a Gantt sink, and pass the
+     * result to endGanttRecording() afterwards.
+     * 
+     * @return Start time in nanoseconds, or 0 when no statistics are collected
+     */
+    protected long startGanttRecording() {
+        return stats == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Instrumentation: adds the time since startGanttRecording() to the Gantt
+     * recording time.
+     * 
+     * @param start Value returned by startGanttRecording()
+     */
+    protected void endGanttRecording(long start) {
+        if (stats != null) {
+            stats.addGanttNanos(System.nanoTime() - start);
+        }
+    }
+
+    // Merges an entry into the pending one or passes the pending one to the sink
+    private void appendSegment(int process, int startTime, int endTime) {
+        if (hasPending && pendingLabel == process && pendingEnd == startTime) {
+            pendingEnd = endTime; // Extend the current entry
+            return;
+        }
+        if (hasPending) {
+            ganttSink.accept(pendingLabel, pendingStart, pendingEnd);
+        }
+        pendingLabel = process;
+        pendingStart = startTime;
+        pendingEnd = endTime;
+        hasPending = true;
+    }
+
+    // Passes the last pending entry to the sink and tells the sink the run is over
+    private void finishGanttChart() {
+        long recording = startGanttRecording();
+        if (hasPending) {
+            ganttSink.accept(pendingLabel, pendingStart, pendingEnd);
+            hasPending = false;
         }
+        ganttSink.finish();
+        endGanttRecording(recording);
     }
-}
\ No newline at end of file
+}
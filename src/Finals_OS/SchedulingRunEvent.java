@@ -0,0 +1,43 @@
+package Finals_OS;
+
+import jdk.jfr.*;
+
+/**
+ * Java Flight Recorder event for one instrumented scheduling run. The event's
+ * duration is the wall-clock time of the run. Creating and committing it costs
+ * next to nothing when no recording is active.
+ */
+@Name("Finals_OS.SchedulingRun")
+@Label("Scheduling Run")
+@Category("CPU Scheduling")
+@Description("One run of a scheduling algorithm over a workload")
+class SchedulingRunEvent extends Event {
+    @Label("Algorithm")
+    String algorithm;
+
+    @Label("Processes")
+    int processes;
+
+    @Label("Dispatches")
+    long dispatches;
+
+    @Label("Preemptions")
+    long preemptions;
+
+    @Label("Idle Gaps")
+    long idleGaps;
+
+    @Label("Mean Ready Queue Length")
+    double meanReadyQueueLength;
+
+    @Label("Max Ready Queue Length")
+    long maxReadyQueueLength;
+
+    @Label("Selection Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long selectionTime;
+
+    @Label("Gantt Recording Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long ganttTime;
+}
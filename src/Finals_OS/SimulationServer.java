@@ -0,0 +1,280 @@
+package Finals_OS;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Long-running, headless simulation server. It keeps one JVM with warm
+ * scheduling code and answers requests from standard input or a Unix domain
+ * socket, so a pipeline that submits many small workloads does not pay for a
+ * JVM start and a cold JIT on every run.
+ *
+ * Each request is one line of space-separated key=value pairs:
+ *
+ * <pre>
+ * id=7 algorithm=rr quantum=4 gantt=true processes=0,5,1;2,3,2;4,1,3
+ * id=8 algorithm=srtf file=/data/trace.csv
+ * </pre>
+ *
+ * Processes are given inline as "AT,BT" or "AT,BT,priority" separated by
+ * semicolons, or as a CSV or binary workload file. The quantum is needed only
+ * by the algorithms that use one, and gantt=true adds the Gantt Chart to the
+ * response. Every request runs on its own virtual thread, so responses may come
+ * back in a different order; the id, if given, is echoed to match them up.
+ *
+ * Each response is one line of JSON with the averages, percentiles and
+ * per-process results, or an "error" member if the request failed. "results"
+ * holds [CT, TAT, WT, RT] for each process in request order, and "gantt" holds
+ * [process index, start, end] for each segment, with -1 for idle time.
+ * Results are cached by workload content, so a repeated request is not
+ * scheduled again.
+ */
+public class SimulationServer {
+    private static final long CACHE_MEMORY_BYTES = 256L << 20; // Memory for results of repeated requests
+    private static final int WARM_UP_PROCESSES = 2000; // Size of each warm-up workload
+    private static final int WARM_UP_ROUNDS = 20; // Warm-up runs of every algorithm
+
+    private final ResultCache cache = new ResultCache(CACHE_MEMORY_BYTES); // Shared by all requests
+
+    /**
+     * Runs every algorithm on generated workloads, so the first requests are
+     * served by compiled code.
+     */
+    public void warmUp() {
+        for (int round = 0; round < WARM_UP_ROUNDS; round++) {
+            Workload workload = new WorkloadGenerator(round).generate(WARM_UP_PROCESSES);
+            for (Algorithm algorithm : Algorithm.values()) {
+                SchedulingAlgorithm scheduler = algorithm.create(workload.copy(), 4);
+                scheduler.schedule();
+                render(null, algorithm, scheduler, true);
+            }
+        }
+    }
+
+    /**
+     * Serves requests from an input stream until it ends, writing responses to an
+     * output stream. Returns once every request has been answered.
+     *
+     * @param in  Request lines
+     * @param out Response lines
+     * @throws IOException If the input cannot be read
+     */
+    public void serve(InputStream in, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String request = line;
+                requests.submit(() -> respond(request, writer));
+            }
+        } // Closing the executor waits for the requests still running
+    }
+
+    /**
+     * Serves requests from every client that connects to a Unix domain socket.
+     * Each connection is handled like standard input. Runs until the thread is
+     * interrupted or the socket fails.
+     *
+     * @param socket Path of the socket file; a stale file is replaced
+     * @throws IOException If the socket cannot be opened
+     */
+    public void serve(Path socket) throws IOException {
+        Files.deleteIfExists(socket);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+                ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor()) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            while (!Thread.currentThread().isInterrupted()) {
+                SocketChannel client = server.accept();
+                connections.submit(() -> {
+                    try (client) {
+                        serve(Channels.newInputStream(client), Channels.newOutputStream(client));
+                    } catch (IOException e) {
+                        System.err.println("Error serving client: " + e.getMessage());
+                    }
+                });
+            }
+        } finally {
+            Files.deleteIfExists(socket);
+        }
+    }
+
+    // Runs one request and writes its response line
+    private void respond(String request, Writer writer) {
+        String id = null;
+        String response;
+        try {
+            Map<String, String> fields = parseFields(request);
+            id = fields.get("id");
+            response = handle(id, fields);
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.toString();
+            response = "{" + (id != null ? "\"id\":" + quote(id) + "," : "") + "\"error\":" + quote(error) + "}";
+        }
+        synchronized (writer) {
+            try {
+                writer.write(response);
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                System.err.println("Error writing response: " + e.getMessage());
+            }
+        }
+    }
+
+    // Schedules the workload of a request and returns the response
+    private String handle(String id, Map<String, String> fields) throws IOException {
+        String name = fields.get("algorithm");
+        if (name == null) {
+            throw new IllegalArgumentException("Missing algorithm");
+        }
+        Algorithm algorithm = Algorithm.fromCommandName(name);
+        int timeQuantum = Integer.parseInt(fields.getOrDefault("quantum", "0"));
+        if (algorithm.usesTimeQuantum() && timeQuantum <= 0) {
+            throw new IllegalArgumentException(algorithm.getTitle() + " needs a positive time quantum");
+        }
+        boolean gantt = Boolean.parseBoolean(fields.get("gantt"));
+
+        Workload workload;
+        if (fields.containsKey("file")) {
+            workload = WorkloadLoader.load(Paths.get(fields.get("file")));
+        } else if (fields.containsKey("processes")) {
+            workload = parseProcesses(fields.get("processes"));
+        } else {
+            throw new IllegalArgumentException("Missing processes or file");
+        }
+        if (workload.size() == 0) {
+            throw new IllegalArgumentException("Workload has no processes");
+        }
+
+        SchedulingAlgorithm scheduler = cache.schedule(workload, algorithm, timeQuantum, gantt);
+        return render(id, algorithm, scheduler, gantt);
+    }
+
+    // Splits "key=value key=value" into a map
+    private static Map<String, String> parseFields(String request) {
+        Map<String, String> fields = new HashMap<>();
+        for (String token : request.trim().split("\\s+")) {
+            int equals = token.indexOf('=');
+            if (equals <= 0) {
+                throw new IllegalArgumentException("Expected key=value: " + token);
+            }
+            fields.put(token.substring(0, equals).toLowerCase(), token.substring(equals + 1));
+        }
+        return fields;
+    }
+
+    // Parses "AT,BT[,priority];AT,BT[,priority];..."
+    private static Workload parseProcesses(String processes) {
+        String[] entries = processes.split(";");
+        int n = entries.length;
+        int[] AT = new int[n];
+        int[] BT = new int[n];
+        int[] priority = new int[n];
+        for (int i = 0; i < n; i++) {
+            String[] values = entries[i].split(",");
+            if (values.length < 2 || values.length > 3) {
+                throw new IllegalArgumentException("Expected AT,BT or AT,BT,priority: " + entries[i]);
+            }
+            AT[i] = Integer.parseInt(values[0].trim());
+            BT[i] = Integer.parseInt(values[1].trim());
+            priority[i] = values.length == 3 ? Integer.parseInt(values[2].trim()) : 0;
+            if (AT[i] < 0 || BT[i] < 0) {
+                throw new IllegalArgumentException("Arrival and burst times must not be negative: " + entries[i]);
+            }
+        }
+        return new Workload(AT, BT, priority);
+    }
+
+    // Formats the results of a finished scheduler as one line of JSON
+    private static String render(String id, Algorithm algorithm, SchedulingAlgorithm scheduler, boolean gantt) {
+        Workload workload = scheduler.workload;
+        MetricsAccumulator metrics = scheduler.getMetrics();
+        StringBuilder json = new StringBuilder(64 + 24 * workload.size());
+        json.append('{');
+        if (id != null) {
+            json.append("\"id\":").append(quote(id)).append(',');
+        }
+        json.append("\"algorithm\":").append(quote(algorithm.getCommandName()));
+        json.append(",\"processes\":").append(workload.size());
+        json.append(",\"avgTurnAroundTime\":").append(number(scheduler.getAvgTurnAroundTime()));
+        json.append(",\"avgWaitingTime\":").append(number(scheduler.getAvgWaitingTime()));
+        json.append(",\"cpuUtilization\":").append(number(scheduler.getCpuUtilization()));
+        json.append(",\"throughput\":").append(number(metrics.getThroughput()));
+        json.append(",\"contextSwitches\":").append(metrics.getContextSwitches());
+        appendPercentiles(json, "responseTime", metrics.getResponseTime());
+        appendPercentiles(json, "waitingTime", metrics.getWaitingTime());
+        appendPercentiles(json, "turnAroundTime", metrics.getTurnAroundTime());
+        if (scheduler instanceof ProportionalShareScheduler) {
+            appendShareDeviation(json, (ProportionalShareScheduler) scheduler);
+        }
+
+        json.append(",\"results\":[");
+        for (int i = 0; i < workload.size(); i++) {
+            json.append(i == 0 ? "[" : ",[").append(workload.completionTime[i]).append(',')
+                    .append(workload.turnAroundTime[i]).append(',').append(workload.waitingTime[i]).append(',')
+                    .append(workload.responseTime[i]).append(']');
+        }
+        json.append(']');
+
+        GanttChart chart = scheduler.getGanttChart();
+        if (gantt && chart != null) {
+            json.append(",\"gantt\":[");
+            for (int s = 0; s < chart.size(); s++) {
+                json.append(s == 0 ? "[" : ",[").append(chart.label(s)).append(',').append(chart.startTime(s))
+                        .append(',').append(chart.endTime(s)).append(']');
+            }
+            json.append(']');
+        }
+        return json.append('}').toString();
+    }
+
+    // Appends "name":{"mean":...,"p50":...,"p95":...,"p99":...,"max":...}
+    private static void appendPercentiles(StringBuilder json, String name, LatencyHistogram histogram) {
+        json.append(",\"").append(name).append("\":{\"mean\":").append(number(histogram.getMean()))
+                .append(",\"p50\":").append(histogram.getPercentile(50))
+                .append(",\"p95\":").append(histogram.getPercentile(95))
+                .append(",\"p99\":").append(histogram.getPercentile(99))
+                .append(",\"max\":").append(histogram.getMax()).append('}');
+    }
+
+    // Appends "shareDeviation":{"mean":...,"max":...,"maxProcess":...}, without the max if no process ran
+    private static void appendShareDeviation(StringBuilder json, ProportionalShareScheduler scheduler) {
+        json.append(",\"shareDeviation\":{\"mean\":").append(number(scheduler.getMeanShareDeviation()));
+        int maxProcess = scheduler.getMaxShareDeviationProcess();
+        if (maxProcess != -1) {
+            json.append(",\"max\":").append(number(scheduler.getShareDeviation(maxProcess)))
+                    .append(",\"maxProcess\":").append(quote(scheduler.workload.pid(maxProcess)));
+        }
+        json.append('}');
+    }
+
+    // JSON has no NaN or infinity
+    private static String number(double value) {
+        return Double.isFinite(value) ? Double.toString(value) : "null";
+    }
+
+    private static String quote(String text) {
+        StringBuilder quoted = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,60 @@
+package Finals_OS;
+
+/**
+ * Stride scheduling, the deterministic counterpart of lottery scheduling. Each
+ * process has a stride inversely proportional to its tickets and a pass value
+ * that advances by its stride for every time unit it runs. The process with the
+ * smallest pass gets the next time quantum, ties going to the smaller index, so
+ * each process's CPU time tracks its ticket share without the random error of
+ * a lottery.
+ *
+ * A new process starts at the smallest pass seen so far, so it cannot claim
+ * the CPU for the time it was absent. Runnable processes are kept in a heap
+ * keyed by pass, so each decision costs O(log n) even with a million runnable
+ * processes. No randomness is involved, so every run is the same.
+ */
+public class StrideClass extends ProportionalShareScheduler {
+    private static final long STRIDE1 = 1L << 30; // Stride of a process with a single ticket
+
+    private ProcessHeap readyQueue; // Runnable processes other than the running one, keyed by pass
+    private long[] pass; // Pass value of each process
+    private long minPass; // Smallest pass seen; never decreases
+
+    public StrideClass(Process[] processes, int timeQuantum) {
+        super(processes, timeQuantum);
+    }
+
+    public StrideClass(Workload workload, int timeQuantum) {
+        super(workload, timeQuantum);
+    }
+
+    @Override
+    protected void startRun(int processes) {
+        readyQueue = new ProcessHeap(processes);
+        pass = new long[processes];
+        minPass = 0;
+    }
+
+    @Override
+    protected void onArrival(int process) {
+        pass[process] = minPass;
+        readyQueue.offer(process, pass[process]);
+    }
+
+    @Override
+    protected int pickNext() {
+        return readyQueue.poll();
+    }
+
+    @Override
+    protected void onTurnEnd(int process, int used, boolean completed) {
+        pass[process] += used * (STRIDE1 / ticketsOf(process));
+        if (!completed) {
+            readyQueue.offer(process, pass[process]); // Back in line with its new pass
+        }
+
+        // The smallest pass moves forward with the running and waiting processes
+        long smallest = readyQueue.isEmpty() ? pass[process] : readyQueue.peekKey(); // Holds the process unless it completed
+        minPass = Math.max(minPass, smallest);
+    }
+}
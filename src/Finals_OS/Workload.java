@@ -0,0 +1,242 @@
+package Finals_OS;
+
+import java.nio.*;
+import java.security.*;
+import java.util.*;
+
+/**
+ * Column-oriented set of processes to schedule. Each attribute is stored in its
+ * own primitive array and a process is identified by its index, so very large
+ * traces avoid per-process objects entirely.
+ *
+ * The arrival time, burst time and priority columns are inputs and are never
+ * modified by the schedulers; only IncrementalScheduler edits them, on its own
+ * copy. The remaining columns hold the results of the last scheduling run.
+ */
+public class Workload {
+    final int[] AT; // Arrival Time of each process
+    final int[] BT; // Burst Time of each process
+    final int[] priority; // Priority of each process (lower value means higher priority)
+    final int[] completionTime; // Completion Time of each process
+    final int[] waitingTime; // Waiting Time of each process
+    final int[] turnAroundTime; // Turnaround Time of each process
+    final int[] responseTime; // Time from arrival to first dispatch, -1 until dispatched
+    private final String[] pids; // Explicit process IDs, or null when IDs are implicit
+    private String contentHash; // Hash of the input columns, computed on first use
+    private volatile int[] arrivalOrder; // Process indices in arrival order, computed on first use
+
+    /**
+     * Creates a workload whose process IDs are derived from their index.
+     *
+     * @param AT       Arrival times
+     * @param BT       Burst times
+     * @param priority Priorities
+     */
+    public Workload(int[] AT, int[] BT, int[] priority) {
+        this(AT, BT, priority, null);
+    }
+
+    /**
+     * Creates a workload with explicit process IDs.
+     *
+     * @param AT       Arrival times
+     * @param BT       Burst times
+     * @param priority Priorities
+     * @param pids     Process IDs, or null to derive them from the index
+     */
+    public Workload(int[] AT, int[] BT, int[] priority, String[] pids) {
+        if (AT.length != BT.length || AT.length != priority.length
+                || (pids != null && pids.length != AT.length)) {
+            throw new IllegalArgumentException("Workload columns must all have the same length");
+        }
+        this.AT = AT;
+        this.BT = BT;
+        this.priority = priority;
+        this.pids = pids;
+        this.completionTime = new int[AT.length];
+        this.waitingTime = new int[AT.length];
+        this.turnAroundTime = new int[AT.length];
+        this.responseTime = new int[AT.length];
+        Arrays.fill(this.responseTime, -1);
+    }
+
+    /**
+     * Builds a workload from process objects. Process IDs that follow the default
+     * naming are not stored.
+     *
+     * @param processes Array of processes
+     * @return Workload holding the same arrival times, burst times and priorities
+     */
+    public static Workload fromProcesses(Process[] processes) {
+        int n = processes.length;
+        int[] AT = new int[n];
+        int[] BT = new int[n];
+        int[] priority = new int[n];
+        String[] pids = new String[n];
+        boolean implicitPids = true;
+        for (int i = 0; i < n; i++) {
+            AT[i] = processes[i].AT;
+            BT[i] = processes[i].BT;
+            priority[i] = processes[i].priority;
+            pids[i] = processes[i].pid;
+            implicitPids &= implicitPid(i).equals(pids[i]);
+        }
+        return new Workload(AT, BT, priority, implicitPids ? null : pids);
+    }
+
+    /**
+     * Returns a workload that shares this workload's input columns but has its own
+     * result columns, so it can be scheduled independently.
+     *
+     * @return Copy of this workload with empty results
+     */
+    public Workload copy() {
+        Workload copy = new Workload(AT, BT, priority, pids);
+        copy.arrivalOrder = arrivalOrder; // Same inputs, same order
+        return copy;
+    }
+
+    // Copy with its own input columns, so that they can be edited with setTimes()
+    Workload editableCopy() {
+        Workload copy = new Workload(AT.clone(), BT.clone(), priority.clone(), pids);
+        copy.arrivalOrder = arrivalOrder != null ? arrivalOrder.clone() : null;
+        return copy;
+    }
+
+    /**
+     * Changes the arrival and burst time of one process. The arrival order is
+     * kept sorted by moving the one process instead of sorting again. Only for
+     * workloads whose input columns are not shared (see editableCopy()).
+     *
+     * @param index       Index of the process
+     * @param arrivalTime New arrival time
+     * @param burstTime   New burst time
+     */
+    void setTimes(int index, int arrivalTime, int burstTime) {
+        int[] order = arrivalOrder;
+        if (order != null && arrivalTime != AT[index]) {
+            int n = AT.length;
+            int from = positionInOrder(order, AT[index], index, n);
+            System.arraycopy(order, from + 1, order, from, n - 1 - from); // Take the process out
+            AT[index] = arrivalTime;
+            int to = positionInOrder(order, arrivalTime, index, n - 1);
+            System.arraycopy(order, to, order, to + 1, n - 1 - to); // Make room at its new position
+            order[to] = index;
+        }
+        AT[index] = arrivalTime;
+        BT[index] = burstTime;
+        contentHash = null;
+    }
+
+    // Position in the first length entries of the arrival order where the process belongs
+    private int positionInOrder(int[] order, int arrivalTime, int index, int length) {
+        long key = ((long) arrivalTime << 32) | index;
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int other = order[middle];
+            if ((((long) AT[other] << 32) | other) < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the number of processes.
+     *
+     * @return Number of processes
+     */
+    public int size() {
+        return AT.length;
+    }
+
+    /**
+     * Returns the ID of a process.
+     *
+     * @param index Index of the process
+     * @return Process ID
+     */
+    public String pid(int index) {
+        return pids != null ? pids[index] : implicitPid(index);
+    }
+
+    /**
+     * Returns a SHA-256 hash of the arrival time, burst time and priority columns,
+     * as 64 hex digits. Workloads with the same inputs have the same hash,
+     * whatever their process IDs, so it can key cached scheduling results.
+     *
+     * @return Hex-encoded hash of the input columns
+     */
+    public String contentHash() {
+        if (contentHash == null) {
+            MessageDigest digest;
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+            chunk.putInt(AT.length);
+            for (int[] column : new int[][] { AT, BT, priority }) {
+                for (int value : column) {
+                    if (chunk.remaining() < 4) {
+                        digest.update(chunk.flip());
+                        chunk.clear();
+                    }
+                    chunk.putInt(value);
+                }
+            }
+            digest.update(chunk.flip());
+            contentHash = HexFormat.of().formatHex(digest.digest()); // Inputs never change, so a race only repeats work
+        }
+        return contentHash;
+    }
+
+    // Default process ID: A to Z for the first 26 processes, then P27, P28, ...
+    static String implicitPid(int index) {
+        return index < 26 ? String.valueOf((char) ('A' + index)) : "P" + (index + 1);
+    }
+
+    /**
+     * Returns the process indices sorted by arrival time. Processes that arrive at
+     * the same time keep their input order. The array is shared by every caller
+     * and must not be modified.
+     *
+     * @return Array of process indices, in arrival order
+     */
+    int[] arrivalOrder() {
+        if (arrivalOrder == null) {
+            arrivalOrder = sortByArrival(); // Inputs never change, so a race only repeats work
+        }
+        return arrivalOrder;
+    }
+
+    private int[] sortByArrival() {
+        long[] keys = new long[AT.length];
+        for (int i = 0; i < AT.length; i++) {
+            keys[i] = ((long) AT[i] << 32) | i; // Arrival time in the high bits, index in the low bits
+        }
+        Arrays.sort(keys);
+
+        int[] order = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    // Copies the results of the last scheduling run into the given process objects
+    void copyResultsTo(Process[] processes) {
+        for (int i = 0; i < processes.length; i++) {
+            Process p = processes[i];
+            p.completionTime = completionTime[i];
+            p.turnAroundTime = turnAroundTime[i];
+            p.waitingTime = waitingTime[i];
+            p.responsetime = responseTime[i];
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package Finals_OS;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+/**
+ * Generates large synthetic workloads for benchmarks and experiments.
+ *
+ * The output depends only on the seed and the settings, never on the number
+ * of threads. Processes are generated in fixed-size chunks, and each chunk
+ * draws from its own SplittableRandom stream. The streams are split from one
+ * root generator in chunk order, so chunks can be filled in parallel in any
+ * order.
+ *
+ * Inter-arrival and burst times are rounded to whole time units. Burst times
+ * are at least 1.
+ */
+public class WorkloadGenerator {
+    private static final int CHUNK_SIZE = 1 << 16; // Processes generated from one random stream
+    private static final double BURSTY_SHORT_FRACTION = 0.9; // Share of short gaps in bursty arrivals
+    private static final double BURSTY_SHORT_SCALE = 0.1; // Short gap mean relative to the overall mean
+
+    /** How processes arrive over time. */
+    public enum ArrivalPattern {
+        /** Exponential inter-arrival times (a Poisson process). */
+        POISSON,
+        /**
+         * Mostly very short gaps with occasional long ones, which gives clusters of
+         * arrivals separated by quiet periods. The mean gap is the same as POISSON.
+         */
+        BURSTY
+    }
+
+    /** How burst times are distributed. */
+    public enum BurstDistribution {
+        /** Uniform between 1 and twice the mean minus 1. */
+        UNIFORM,
+        /** Exponential with the given mean. */
+        EXPONENTIAL,
+        /** Heavy-tailed Pareto with the given mean and shape. */
+        PARETO
+    }
+
+    /** How priorities are distributed. */
+    public enum PriorityDistribution {
+        /** Every priority level is equally likely. */
+        UNIFORM,
+        /**
+         * Each level is half as likely as the next lower-priority level, so most
+         * processes get the lowest priority and only a few are urgent.
+         */
+        SKEWED
+    }
+
+    private final long seed; // Seed of the root random stream
+    private ArrivalPattern arrivalPattern = ArrivalPattern.POISSON;
+    private double meanInterArrival = 10; // Mean time between arrivals
+    private BurstDistribution burstDistribution = BurstDistribution.EXPONENTIAL;
+    private double meanBurst = 10; // Mean burst time
+    private double paretoShape = 1.5; // Shape of the Pareto distribution (must be above 1)
+    private int maxBurst = 1_000_000; // Upper limit on generated burst times
+    private PriorityDistribution priorityDistribution = PriorityDistribution.UNIFORM;
+    private int priorityLevels = 10; // Priorities are drawn from 0 to priorityLevels - 1
+
+    /**
+     * Creates a generator with Poisson arrivals every 10 time units on average,
+     * exponential bursts with a mean of 10, and 10 uniform priority levels.
+     *
+     * @param seed Random seed
+     */
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Sets the arrival pattern.
+     *
+     * @param pattern          Arrival pattern
+     * @param meanInterArrival Mean time between arrivals (at least 0)
+     * @return This generator
+     */
+    public WorkloadGenerator arrivals(ArrivalPattern pattern, double meanInterArrival) {
+        if (meanInterArrival < 0) {
+            throw new IllegalArgumentException("Mean inter-arrival time must not be negative");
+        }
+        this.arrivalPattern = pattern;
+        this.meanInterArrival = meanInterArrival;
+        return this;
+    }
+
+    /**
+     * Sets the burst time distribution.
+     *
+     * @param distribution Burst time distribution
+     * @param meanBurst    Mean burst time (at least 1)
+     * @return This generator
+     */
+    public WorkloadGenerator bursts(BurstDistribution distribution, double meanBurst) {
+        if (meanBurst < 1) {
+            throw new IllegalArgumentException("Mean burst time must be at least 1");
+        }
+        this.burstDistribution = distribution;
+        this.meanBurst = meanBurst;
+        return this;
+    }
+
+    /**
+     * Sets the shape of the Pareto distribution. Smaller shapes give heavier tails.
+     *
+     * @param shape Shape parameter (above 1, so that the mean exists)
+     * @return This generator
+     */
+    public WorkloadGenerator paretoShape(double shape) {
+        if (shape <= 1) {
+            throw new IllegalArgumentException("Pareto shape must be above 1");
+        }
+        this.paretoShape = shape;
+        return this;
+    }
+
+    /**
+     * Sets the largest burst time that can be generated.
+     *
+     * @param maxBurst Upper limit on burst times (at least 1)
+     * @return This generator
+     */
+    public WorkloadGenerator maxBurst(int maxBurst) {
+        if (maxBurst < 1) {
+            throw new IllegalArgumentException("Maximum burst time must be at least 1");
+        }
+        this.maxBurst = maxBurst;
+        return this;
+    }
+
+    /**
+     * Sets the priority distribution.
+     *
+     * @param distribution Priority distribution
+     * @param levels       Number of priority levels (at least 1)
+     * @return This generator
+     */
+    public WorkloadGenerator priorities(PriorityDistribution distribution, int levels) {
+        if (levels < 1) {
+            throw new IllegalArgumentException("There must be at least one priority level");
+        }
+        this.priorityDistribution = distribution;
+        this.priorityLevels = levels;
+        return this;
+    }
+
+    /**
+     * Generates a workload on the common fork/join pool.
+     *
+     * @param count Number of processes
+     * @return New workload, with processes in arrival order
+     */
+    public Workload generate(int count) {
+        return generateChunks(count);
+    }
+
+    /**
+     * Generates a workload on a dedicated pool with the given number of threads.
+     * The result is the same for every thread count.
+     *
+     * @param count   Number of processes
+     * @param threads Number of worker threads
+     * @return New workload, with processes in arrival order
+     * @throws InterruptedException If interrupted while waiting for the workers
+     */
+    public Workload generate(int count, int threads) throws InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> generateChunks(count)).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Workload generation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Fills the workload columns chunk by chunk, in parallel
+    private Workload generateChunks(int count) {
+        int[] AT = new int[count];
+        int[] BT = new int[count];
+        int[] priority = new int[count];
+
+        // One stream per chunk, split from the root in chunk order
+        int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = root.split();
+        }
+
+        // Pass 1: inter-arrival gaps (stored in AT for now), burst times and priorities
+        long[] chunkGapTotal = new long[chunks];
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom random = streams[c];
+            int end = (int) Math.min(count, (long) (c + 1) * CHUNK_SIZE);
+            long total = 0;
+            for (int i = c * CHUNK_SIZE; i < end; i++) {
+                long gap = nextGap(random);
+                AT[i] = (int) Math.min(gap, Integer.MAX_VALUE); // Only the last gap can be larger and it is not used
+                BT[i] = nextBurst(random);
+                priority[i] = nextPriority(random);
+                if (i < count - 1) {
+                    total += gap; // The last gap leads to no arrival
+                }
+            }
+            chunkGapTotal[c] = total;
+        });
+
+        // Arrival time of the first process of each chunk
+        long[] chunkStart = new long[chunks];
+        long time = 0;
+        for (int c = 0; c < chunks; c++) {
+            chunkStart[c] = time;
+            time += chunkGapTotal[c];
+        }
+        if (time > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Arrival times exceed the int range; use a shorter mean inter-arrival time");
+        }
+
+        // Pass 2: turn gaps into arrival times; the first process arrives at time 0
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            int end = (int) Math.min(count, (long) (c + 1) * CHUNK_SIZE);
+            long arrival = chunkStart[c];
+            for (int i = c * CHUNK_SIZE; i < end; i++) {
+                int gap = AT[i];
+                AT[i] = (int) arrival;
+                arrival += gap;
+            }
+        });
+
+        return new Workload(AT, BT, priority);
+    }
+
+    // Draws the time until the next arrival, capped just above the int range so totals cannot overflow
+    private long nextGap(SplittableRandom random) {
+        double mean = meanInterArrival;
+        if (arrivalPattern == ArrivalPattern.BURSTY) {
+            // Mix short and long gaps while keeping the overall mean
+            double shortMean = mean * BURSTY_SHORT_SCALE;
+            if (random.nextDouble() < BURSTY_SHORT_FRACTION) {
+                mean = shortMean;
+            } else {
+                mean = (mean - BURSTY_SHORT_FRACTION * shortMean) / (1 - BURSTY_SHORT_FRACTION);
+            }
+        }
+        return Math.min(Math.round(exponential(random, mean)), Integer.MAX_VALUE + 1L);
+    }
+
+    // Draws a burst time between 1 and maxBurst
+    private int nextBurst(SplittableRandom random) {
+        double burst;
+        switch (burstDistribution) {
+            case UNIFORM:
+                burst = 0.5 + random.nextDouble() * (2 * meanBurst - 1);
+                break;
+            case PARETO:
+                double scale = meanBurst * (paretoShape - 1) / paretoShape;
+                burst = scale / Math.pow(1.0 - random.nextDouble(), 1.0 / paretoShape);
+                break;
+            default:
+                burst = exponential(random, meanBurst);
+                break;
+        }
+        return (int) Math.max(1, Math.min(maxBurst, Math.round(burst)));
+    }
+
+    // Draws a priority level
+    private int nextPriority(SplittableRandom random) {
+        if (priorityDistribution == PriorityDistribution.UNIFORM) {
+            return random.nextInt(priorityLevels);
+        }
+        // Geometric: count fair coin flips until the first head, capped at the top level
+        int level = Long.numberOfTrailingZeros(random.nextLong() | Long.MIN_VALUE);
+        return priorityLevels - 1 - Math.min(level, priorityLevels - 1);
+    }
+
+    private static double exponential(SplittableRandom random, double mean) {
+        return -mean * Math.log(1.0 - random.nextDouble());
+    }
+}
@@ -0,0 +1,283 @@
+package Finals_OS;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Loads workloads from CSV or binary files through memory-mapped file
+ * channels. Bytes are parsed directly into the workload columns, without
+ * creating a String per line.
+ *
+ * CSV format: one process per line as "AT,BT" or "AT,BT,priority". Blank
+ * lines, lines starting with '#' and a header line are skipped. Spaces may
+ * surround a field but not split a number, and arrival and burst times must not
+ * be negative.
+ *
+ * Binary format (little-endian): the magic number "CPUW", a format version
+ * (1), the process count, and then the arrival time, burst time and priority
+ * columns, each as count 32-bit integers.
+ */
+public final class WorkloadLoader {
+    static final int MAGIC = 0x57555043; // "CPUW" read as a little-endian int
+    static final int VERSION = 1; // Binary format version
+    private static final int HEADER_BYTES = 12; // Magic, version and count
+    private static final long MAP_CHUNK = 1L << 30; // Largest region mapped at once
+
+    private WorkloadLoader() {
+    }
+
+    /**
+     * Loads a workload, choosing the format from the file contents: files that
+     * start with the binary magic number are read as binary, anything else as CSV.
+     *
+     * @param file File to read
+     * @return Loaded workload
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    public static Workload load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() >= HEADER_BYTES) {
+                ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+                channel.read(magic, 0);
+                if (magic.getInt(0) == MAGIC) {
+                    return readBinary(channel);
+                }
+            }
+            return readCsv(channel);
+        }
+    }
+
+    /**
+     * Loads a workload from a CSV file.
+     *
+     * @param file File to read
+     * @return Loaded workload
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    public static Workload loadCsv(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readCsv(channel);
+        }
+    }
+
+    /**
+     * Loads a workload from a binary workload file.
+     *
+     * @param file File to read
+     * @return Loaded workload
+     * @throws IOException If the file cannot be read or is malformed
+     */
+    public static Workload loadBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return readBinary(channel);
+        }
+    }
+
+    /**
+     * Writes a workload's arrival time, burst time and priority columns to a
+     * binary workload file. Process IDs are not stored.
+     *
+     * @param file     File to create or replace
+     * @param workload Workload to write
+     * @throws IOException If the file cannot be written
+     */
+    public static void writeBinary(Path file, Workload workload) throws IOException {
+        int n = workload.size();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN).putInt(MAGIC).putInt(VERSION).putInt(n);
+
+            long offset = HEADER_BYTES;
+            for (int[] column : new int[][] { workload.AT, workload.BT, workload.priority }) {
+                transferColumn(channel, FileChannel.MapMode.READ_WRITE, offset, column);
+                offset += 4L * n;
+            }
+        }
+    }
+
+    // Reads a binary workload from an open channel
+    private static Workload readBinary(FileChannel channel) throws IOException {
+        if (channel.size() < HEADER_BYTES) {
+            throw new IOException("Binary workload is missing its header");
+        }
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a binary workload file");
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary workload version: " + version);
+        }
+        int n = header.getInt();
+        if (n < 0 || channel.size() < HEADER_BYTES + 12L * n) {
+            throw new IOException("Binary workload is truncated");
+        }
+
+        int[] AT = new int[n];
+        int[] BT = new int[n];
+        int[] priority = new int[n];
+        long offset = HEADER_BYTES;
+        for (int[] column : new int[][] { AT, BT, priority }) {
+            transferColumn(channel, FileChannel.MapMode.READ_ONLY, offset, column);
+            offset += 4L * n;
+        }
+        for (int i = 0; i < n; i++) {
+            if (AT[i] < 0 || BT[i] < 0) {
+                throw new IOException("Process " + (i + 1) + ": arrival and burst times must not be negative");
+            }
+        }
+        return new Workload(AT, BT, priority);
+    }
+
+    // Copies a column between an int array and the file, one mapped chunk at a time
+    static void transferColumn(FileChannel channel, FileChannel.MapMode mode, long offset, int[] column)
+            throws IOException {
+        int chunkInts = (int) (MAP_CHUNK / 4);
+        for (int start = 0; start < column.length; start += chunkInts) {
+            int count = Math.min(chunkInts, column.length - start);
+            MappedByteBuffer buffer = channel.map(mode, offset + 4L * start, 4L * count);
+            IntBuffer ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (mode == FileChannel.MapMode.READ_ONLY) {
+                ints.get(column, start, count);
+            } else {
+                ints.put(column, start, count);
+            }
+        }
+    }
+
+    // Reads a CSV workload from an open channel
+    private static Workload readCsv(FileChannel channel) throws IOException {
+        long size = channel.size();
+        CsvParser parser = new CsvParser((int) Math.min(1 << 20, size / 6 + 16));
+        for (long position = 0; position < size; position += MAP_CHUNK) {
+            parser.feed(channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAP_CHUNK, size - position)));
+        }
+        return parser.finish();
+    }
+
+    /**
+     * Byte-level CSV state machine. Its state carries over between mapped chunks,
+     * so a line may span two chunks.
+     */
+    private static final class CsvParser {
+        private int[] AT; // Parsed arrival times
+        private int[] BT; // Parsed burst times
+        private int[] priority; // Parsed priorities
+        private int count; // Number of parsed processes
+
+        private final int[] fields = new int[3]; // Fields of the current line
+        private int fieldCount; // Number of completed fields on the current line
+        private long value; // Value of the field being parsed
+        private boolean negative; // True if the current field has a minus sign
+        private boolean hasDigits; // True if the current field has at least one digit
+        private boolean afterSpace; // True if whitespace followed the start of the current field's number
+        private boolean lineStarted; // True if the current line has any content
+        private boolean skipLine; // True while skipping a comment or header line
+        private long line = 1; // Current line number, for error messages
+
+        CsvParser(int capacity) {
+            AT = new int[Math.max(16, capacity)];
+            BT = new int[AT.length];
+            priority = new int[AT.length];
+        }
+
+        void feed(ByteBuffer buffer) throws IOException {
+            int limit = buffer.limit();
+            for (int i = buffer.position(); i < limit; i++) {
+                byte c = buffer.get(i);
+                if (skipLine) {
+                    if (c == '\n') {
+                        skipLine = false;
+                        line++;
+                    }
+                    continue;
+                }
+                if (c >= '0' && c <= '9') {
+                    if (afterSpace) {
+                        throw error("unexpected whitespace inside a number");
+                    }
+                    value = value * 10 + (c - '0');
+                    if (value > (long) Integer.MAX_VALUE + 1) {
+                        throw error("number out of range");
+                    }
+                    hasDigits = true;
+                    lineStarted = true;
+                } else if (c == ',') {
+                    endField();
+                } else if (c == '\n') {
+                    endLine();
+                    line++;
+                } else if (c == '-' && !hasDigits && !negative && !afterSpace) {
+                    negative = true;
+                    lineStarted = true;
+                } else if (c == ' ' || c == '\t' || c == '\r') {
+                    afterSpace = hasDigits || negative; // Whitespace ends a number that has started
+                } else if (!lineStarted && (c == '#' || (count == 0 && Character.isLetter(c)))) {
+                    skipLine = true; // Comment, or a header before the first process
+                } else {
+                    throw error("unexpected character '" + (char) c + "'");
+                }
+            }
+        }
+
+        Workload finish() throws IOException {
+            if (lineStarted) {
+                endLine(); // Last line without a trailing newline
+            }
+            return new Workload(Arrays.copyOf(AT, count), Arrays.copyOf(BT, count),
+                    Arrays.copyOf(priority, count));
+        }
+
+        private void endField() throws IOException {
+            if (!hasDigits) {
+                throw error("empty field");
+            }
+            if (fieldCount == fields.length) {
+                throw error("too many fields");
+            }
+            long v = negative ? -value : value;
+            if (v > Integer.MAX_VALUE) {
+                throw error("number out of range");
+            }
+            fields[fieldCount++] = (int) v;
+            value = 0;
+            negative = false;
+            hasDigits = false;
+            afterSpace = false;
+        }
+
+        private void endLine() throws IOException {
+            if (!lineStarted) {
+                return; // Blank line
+            }
+            endField();
+            if (fieldCount < 2) {
+                throw error("expected AT,BT or AT,BT,priority");
+            }
+            if (fields[0] < 0 || fields[1] < 0) {
+                throw error("arrival and burst times must not be negative");
+            }
+            if (count == AT.length) {
+                int capacity = count * 2;
+                AT = Arrays.copyOf(AT, capacity);
+                BT = Arrays.copyOf(BT, capacity);
+                priority = Arrays.copyOf(priority, capacity);
+            }
+            AT[count] = fields[0];
+            BT[count] = fields[1];
+            priority[count] = fieldCount == 3 ? fields[2] : 0;
+            count++;
+            fieldCount = 0;
+            lineStarted = false;
+        }
+
+        private IOException error(String message) {
+            return new IOException("Line " + line + ": " + message);
+        }
+    }
+}